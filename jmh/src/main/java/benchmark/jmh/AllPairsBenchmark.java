@@ -0,0 +1,74 @@
+package benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithm.BlockedFloydWarshall;
+import algorithm.FloydWarshall;
+import algorithm.Johnson;
+import graph.CSRGraph;
+
+// All-pairs computation with the original Floyd-Warshall, the blocked
+// Floyd-Warshall and Johnson's algorithm, on small topologies of growing density.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllPairsBenchmark {
+
+	@Param({ "200", "800" })
+	public int size;
+
+	@Param({ "4", "64" })
+	public int degree;
+
+	@Param({ "uniform", "bimodal", "skewed" })
+	public String distribution;
+
+	@Param({ "0", "40" })
+	public int bandwidth;
+
+	private CSRGraph graph;
+	private FloydWarshall floydWarshall;
+	private BlockedFloydWarshall blocked;
+	private Johnson johnson;
+
+	@Setup(Level.Trial)
+	public void buildGraph() {
+		graph = Topologies.build(size, degree, distribution);
+		floydWarshall = new FloydWarshall();
+		blocked = new BlockedFloydWarshall();
+		johnson = new Johnson();
+	}
+
+	@Benchmark
+	public int[] floydWarshall() {
+		return floydWarshall.findShortestPath(graph, 0, size - 1, bandwidth);
+	}
+
+	@Benchmark
+	public int[] blockedFloydWarshall() {
+		blocked.compute(graph, bandwidth);
+		return blocked.getDistanceMatrix();
+	}
+
+	@Benchmark
+	public int[] johnson() {
+		johnson.compute(graph, bandwidth);
+		return johnson.getDistanceMatrix();
+	}
+}
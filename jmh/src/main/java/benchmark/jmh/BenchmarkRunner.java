@@ -0,0 +1,30 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point of benchmarks.jar. Takes the usual JMH command line, always adds the
+// allocation profiler (-prof gc) and writes the results as JSON, by default to
+// jmh-result.json, so that runs can be compared.
+// usage: java -jar jmh/target/benchmarks.jar [regexp] [-p size=10000] [-rff file.json]
+public class BenchmarkRunner {
+
+	private static final String DEFAULT_RESULT = "jmh-result.json";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON);
+		if (!commandLine.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,83 @@
+package benchmark.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.SyntheticTopology;
+import file.EdgeListFile;
+import file.FileSystem;
+import graph.CSRGraph;
+import graph.GenerateVertex;
+import graph.Vertex;
+
+// Loading stages of a substrate file: parsing into the three matrices, building the
+// Vertex/Edge objects, streaming it straight into a CSR snapshot, and building the
+// snapshot from the loaded vertices.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadingBenchmark {
+
+	@Param({ "500", "2000" })
+	public int size;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	@Param({ "uniform", "bimodal", "skewed" })
+	public String distribution;
+
+	private File file;
+	private List<Vertex> vertices;
+
+	@Setup(Level.Trial)
+	public void writeFile() throws IOException {
+		file = File.createTempFile("substrateJmh", ".txt");
+		SyntheticTopology.writeSubstrate(Topologies.build(size, degree, distribution), file.getPath());
+		vertices = new GenerateVertex(file.getPath()).getVertices();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFile() {
+		file.delete();
+	}
+
+	@Benchmark
+	public FileSystem parseMatrices() {
+		return new FileSystem(file.getPath());
+	}
+
+	@Benchmark
+	public List<Vertex> getVertices() {
+		return new GenerateVertex(file.getPath()).getVertices();
+	}
+
+	@Benchmark
+	public CSRGraph readSubstrate() throws IOException {
+		return EdgeListFile.readSubstrate(file.getPath());
+	}
+
+	@Benchmark
+	public CSRGraph buildGraph() {
+		return CSRGraph.fromVertices(vertices);
+	}
+}
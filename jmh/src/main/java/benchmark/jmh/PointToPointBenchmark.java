@@ -0,0 +1,110 @@
+package benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithm.BidirectionalDijkstra;
+import algorithm.Dijkstra;
+import algorithm.PathResult;
+import algorithm.Router;
+import algorithm.SPFA;
+import algorithm.ShortestPath;
+import graph.CSRGraph;
+
+// Single-pair queries on random pairs with every engine that answers them. The
+// pairs are drawn once per trial and every invocation takes the next one.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointToPointBenchmark {
+
+	private static final int PAIRS = 1024; // power of two for the cursor mask
+
+	@Param({ "10000", "100000" })
+	public int size;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	@Param({ "uniform", "bimodal", "skewed" })
+	public String distribution;
+
+	@Param({ "0", "40" })
+	public int bandwidth;
+
+	private CSRGraph graph;
+	private int[] sources;
+	private int[] destinations;
+	private ShortestPath shortestPath;
+	private Dijkstra dijkstra;
+	private BidirectionalDijkstra bidirectional;
+	private SPFA spfa;
+	private Router router;
+
+	@Setup(Level.Trial)
+	public void buildGraph() {
+		graph = Topologies.build(size, degree, distribution);
+		sources = Topologies.vertices(size, PAIRS, 7);
+		destinations = Topologies.vertices(size, PAIRS, 8);
+		shortestPath = new ShortestPath();
+		dijkstra = new Dijkstra(graph);
+		bidirectional = new BidirectionalDijkstra(graph);
+		spfa = new SPFA(graph);
+		router = new Router(graph);
+	}
+
+	// next query pair of the calling thread
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int next;
+
+		int advance() {
+			return next++ & (PAIRS - 1);
+		}
+	}
+
+	@Benchmark
+	public int[] defineShortestPath(Cursor cursor) {
+		int q = cursor.advance();
+		return shortestPath.defineShortestPath(graph, sources[q], destinations[q], bandwidth);
+	}
+
+	@Benchmark
+	public PathResult dijkstra(Cursor cursor) {
+		int q = cursor.advance();
+		return dijkstra.shortestPath(sources[q], destinations[q], bandwidth);
+	}
+
+	@Benchmark
+	public PathResult bidirectionalDijkstra(Cursor cursor) {
+		int q = cursor.advance();
+		return bidirectional.shortestPath(sources[q], destinations[q], bandwidth);
+	}
+
+	@Benchmark
+	public PathResult bellmanFord(Cursor cursor) {
+		int q = cursor.advance();
+		return spfa.shortestPath(sources[q], destinations[q], bandwidth);
+	}
+
+	@Benchmark
+	public PathResult router(Cursor cursor) {
+		int q = cursor.advance();
+		return router.shortestPath(sources[q], destinations[q], bandwidth);
+	}
+}
@@ -0,0 +1,55 @@
+package benchmark.jmh;
+
+import java.util.Random;
+
+import benchmark.SyntheticTopology;
+import graph.CSRGraph;
+
+// Synthetic topologies of the JMH benchmarks: SyntheticTopology graphs with the
+// bandwidths redrawn from one of the distributions below, and random query pairs.
+final class Topologies {
+
+	static final int MAX_WEIGHT = 10;
+	static final int MAX_BANDWIDTH = 100;
+	static final long SEED = 42;
+
+	private Topologies() {
+	}
+
+	// build a topology with the given size, average out-degree and bandwidth distribution:
+	// uniform 1..100, bimodal (80% thin links of 1..20, 20% trunks of 80..100) or
+	// skewed (exponential, most links thin and a few wide)
+	static CSRGraph build(int size, int degree, String distribution) {
+		CSRGraph graph = SyntheticTopology.generate(size, degree, MAX_WEIGHT, MAX_BANDWIDTH, SEED);
+		if (distribution.equals("uniform")) {
+			return graph;
+		}
+
+		Random random = new Random(SEED + 1);
+		int[] bandwidths = new int[graph.edgeCount()];
+		for (int e = 0; e < bandwidths.length; e++) {
+			switch (distribution) {
+			case "bimodal":
+				bandwidths[e] = random.nextInt(5) == 0 ? 80 + random.nextInt(21) : 1 + random.nextInt(20);
+				break;
+			case "skewed":
+				double draw = -Math.log(1 - random.nextDouble()) * MAX_BANDWIDTH / 8;
+				bandwidths[e] = (int) Math.min(MAX_BANDWIDTH, 1 + draw);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown bandwidth distribution: " + distribution);
+			}
+		}
+		int[] names = new int[size];
+		for (int i = 0; i < size; i++) {
+			names[i] = graph.getName(i);
+		}
+		return new CSRGraph(graph.offsets.clone(), graph.targets.clone(), graph.weights.clone(), bandwidths,
+				graph.cpu, graph.ram, names);
+	}
+
+	// draw count random vertex indices
+	static int[] vertices(int size, int count, long seed) {
+		return new Random(seed).ints(count, 0, size).toArray();
+	}
+}
@@ -0,0 +1,48 @@
+package algorithm;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Min-plus kernel on jdk.incubator.vector lanes. The distance and predecessor
+// updates are masked stores, lanes whose pivot entry is unreachable never update.
+// Compile and run with --add-modules jdk.incubator.vector; MinPlusKernel.vector()
+// loads this class by name and falls back to the scalar kernel without it.
+public final class VectorMinPlusKernel extends MinPlusKernel {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	@Override
+	public void relaxRow(int[] distance, int[] predecessor, int rowI, int rowK, int jStart, int jEnd, int dik) {
+		IntVector pivot = IntVector.broadcast(SPECIES, dik);
+		int j = jStart;
+		int upper = jStart + SPECIES.loopBound(jEnd - jStart);
+
+		for (; j < upper; j += SPECIES.length()) {
+			IntVector dkj = IntVector.fromArray(SPECIES, distance, rowK + j);
+			IntVector dij = IntVector.fromArray(SPECIES, distance, rowI + j);
+			IntVector candidate = dkj.add(pivot);
+			VectorMask<Integer> better = dkj.compare(VectorOperators.LT, BlockedFloydWarshall.INF)
+					.and(candidate.compare(VectorOperators.LT, dij));
+			if (better.anyTrue()) {
+				candidate.intoArray(distance, rowI + j, better);
+				IntVector.fromArray(SPECIES, predecessor, rowK + j).intoArray(predecessor, rowI + j, better);
+			}
+		}
+
+		for (; j < jEnd; j++) { // scalar tail
+			int dkj = distance[rowK + j];
+			int candidate = dik + dkj;
+			if (dkj < BlockedFloydWarshall.INF && candidate < distance[rowI + j]) {
+				distance[rowI + j] = candidate;
+				predecessor[rowI + j] = predecessor[rowK + j];
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "vector-" + SPECIES.vectorBitSize() + "bit";
+	}
+}
@@ -0,0 +1,125 @@
+package algorithm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import graph.CSRGraph;
+import graph.Vertex;
+
+// Goal-directed A* search with landmark lower bounds (ALT). The landmark tables
+// are built once per bandwidth tier and shared by all queries; a query uses the
+// table of the highest tier that does not exceed its bandwidth, so the bounds stay
+// admissible and consistent. Vertices that the tables prove cannot reach the
+// target are never queued. Bandwidths are expected to be non-negative, the tier
+// 0 table covers every query.
+public class ALT {
+
+	private final CSRGraph graph;
+	private final int landmarkCount;
+	private final int[] tiers; // ascending bandwidth tiers, always starting with 0
+	private final Map<Integer, LandmarkTable> tables;
+	private final ThreadLocal<SearchState> states;
+
+	// create the engine for a loaded Vertex/Edge topology
+	public ALT(List<Vertex> vertices, int landmarkCount, int... tiers) {
+		this(CSRGraph.fromVertices(vertices), landmarkCount, tiers);
+	}
+
+	// create the engine with landmark tables for the given bandwidth tiers
+	public ALT(CSRGraph graph, int landmarkCount, int... tiers) {
+		if (landmarkCount < 1) {
+			throw new IllegalArgumentException("At least one landmark is required: " + landmarkCount);
+		}
+		int[] sorted = Arrays.copyOf(tiers, tiers.length + 1); // add tier 0
+		Arrays.sort(sorted);
+		this.graph = graph;
+		this.landmarkCount = landmarkCount;
+		this.tiers = Arrays.stream(sorted).filter(tier -> tier >= 0).distinct().toArray();
+		this.tables = new ConcurrentHashMap<Integer, LandmarkTable>();
+		this.states = ThreadLocal.withInitial(() -> new SearchState(graph.vertexCount()));
+	}
+
+	// get the graph of the engine
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// build the tables of all tiers now instead of on their first query
+	public void preprocess() {
+		for (int tier : tiers) {
+			getTable(tier);
+		}
+	}
+
+	// get the landmark table used by queries with the given bandwidth
+	public LandmarkTable getTable(int bandwidth) {
+		int tier = tiers[0];
+		for (int t : tiers) {
+			if (t <= bandwidth) {
+				tier = t;
+			}
+		}
+		return tables.computeIfAbsent(tier, t -> LandmarkTable.build(graph, landmarkCount, t));
+	}
+
+	// compute the shortest path between two vertex names, empty if either name is not in the graph
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE, 0);
+		}
+		return shortestPathIndex(source, destination, bandwidth);
+	}
+
+	// compute the shortest path between two vertex indices over edges with enough bandwidth
+	public PathResult shortestPathIndex(int sourceIndex, int destinationIndex, int bandwidth) {
+
+		LandmarkTable table = getTable(bandwidth);
+		SearchState state = states.get();
+		state.reset();
+
+		int sourceBound = table.lowerBound(sourceIndex, destinationIndex);
+		if (sourceBound == Integer.MAX_VALUE) {
+			return new PathResult(new int[0], Integer.MAX_VALUE, 0);
+		}
+
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int[] weights = graph.weights;
+		int[] bandwidths = graph.bandwidths;
+
+		IndexedHeap vertexQueue = state.getQueue(); // keyed by distance plus lower bound
+		state.update(sourceIndex, 0, -1);
+		vertexQueue.push(sourceIndex, sourceBound);
+
+		while (!vertexQueue.isEmpty()) {
+			int currentNode = vertexQueue.poll();
+			state.settled();
+			if (currentNode == destinationIndex) {
+				break; // consistent bounds make the first poll final
+			}
+			int currentDistance = state.getDistance(currentNode);
+
+			int end = offsets[currentNode + 1];
+			for (int e = offsets[currentNode]; e < end && bandwidths[e] >= bandwidth; e++) {
+				int targetNode = targets[e];
+				int weightToTarget = currentDistance + weights[e];
+				if (weightToTarget >= state.getDistance(targetNode)) {
+					continue;
+				}
+				int bound = table.lowerBound(targetNode, destinationIndex);
+				if (bound == Integer.MAX_VALUE) {
+					continue; // the target is not reachable from this vertex
+				}
+				state.update(targetNode, weightToTarget, currentNode);
+				vertexQueue.push(targetNode, weightToTarget + bound);
+			}
+		}
+
+		return new PathResult(state.pathTo(graph, destinationIndex), state.getDistance(destinationIndex),
+				state.getSettledCount());
+	}
+}
@@ -0,0 +1,147 @@
+package algorithm;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import graph.CSRGraph;
+import graph.LinkCapacity;
+
+// Lock-free admission control: route a demand over edges whose residual bandwidth
+// covers it, then reserve it on every edge of the path with compare-and-set. When
+// another admission took the capacity in between, the reservation rolls back and
+// the demand is routed again on the new residuals, up to a retry limit. Every
+// thread searches with its own state, no lock is shared between admissions.
+public class AdmissionControl {
+
+	private final LinkCapacity capacity;
+	private final int maxAttempts;
+	private final ThreadLocal<SearchState> states;
+	private final ThreadLocal<int[]> parentEdges; // edge into every reached vertex
+
+	private final AtomicLong admitted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong retries = new AtomicLong();
+
+	// admit on the residual capacity with at most maxAttempts routings per demand
+	public AdmissionControl(LinkCapacity capacity, int maxAttempts) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("At least one attempt is required: " + maxAttempts);
+		}
+		CSRGraph graph = capacity.getGraph();
+		this.capacity = capacity;
+		this.maxAttempts = maxAttempts;
+		this.states = ThreadLocal.withInitial(() -> new SearchState(graph.vertexCount()));
+		this.parentEdges = ThreadLocal.withInitial(() -> new int[graph.vertexCount()]);
+	}
+
+	// get the residual capacity the admissions reserve from
+	public LinkCapacity getCapacity() {
+		return capacity;
+	}
+
+	// route and reserve a demand between two vertex names, null if no path has enough capacity
+	public Reservation admit(int sourceID, int destinationID, int demand) {
+		CSRGraph graph = capacity.getGraph();
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			throw new IllegalArgumentException("Unknown vertex: " + (source == -1 ? sourceID : destinationID));
+		}
+		return admitIndex(source, destination, demand);
+	}
+
+	// route and reserve a positive demand between two vertex indices, null if no path has enough capacity
+	public Reservation admitIndex(int source, int destination, int demand) {
+		if (demand <= 0) {
+			throw new IllegalArgumentException("Demand must be positive: " + demand);
+		}
+		CSRGraph graph = capacity.getGraph();
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			if (attempt > 1) {
+				retries.incrementAndGet();
+			}
+			SearchState state = states.get();
+			int[] parentEdge = parentEdges.get();
+			state.reset();
+			search(state, parentEdge, source, destination, demand);
+			if (state.getDistance(destination) == Integer.MAX_VALUE) {
+				break; // no path with enough residual bandwidth
+			}
+
+			int hops = 0;
+			for (int v = destination; v != source; v = state.getPrevious(v)) {
+				hops++;
+			}
+			int[] edges = new int[hops];
+			for (int v = destination; v != source; v = state.getPrevious(v)) {
+				edges[--hops] = parentEdge[v];
+			}
+
+			if (capacity.tryReserve(edges, demand)) {
+				admitted.incrementAndGet();
+				return new Reservation(capacity, edges, state.pathTo(graph, destination), demand,
+						state.getDistance(destination), attempt);
+			}
+		}
+		rejected.incrementAndGet();
+		return null;
+	}
+
+	// get the distance over edges whose residual covers the demand, Integer.MAX_VALUE if unreachable
+	public int residualDistance(int source, int destination, int demand) {
+		SearchState state = states.get();
+		state.reset();
+		search(state, parentEdges.get(), source, destination, demand);
+		return state.getDistance(destination);
+	}
+
+	// Dijkstra over edges whose residual bandwidth covers the demand, until the destination is settled
+	private void search(SearchState state, int[] parentEdge, int source, int destination, int demand) {
+		CSRGraph graph = capacity.getGraph();
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int[] weights = graph.weights;
+		int[] bandwidths = graph.bandwidths;
+
+		IndexedHeap vertexQueue = state.getQueue();
+		state.update(source, 0, -1);
+		vertexQueue.push(source, 0);
+
+		while (!vertexQueue.isEmpty()) {
+			int currentNode = vertexQueue.poll();
+			if (currentNode == destination) {
+				break;
+			}
+			int currentDistance = state.getDistance(currentNode);
+
+			// the residual never exceeds the capacity, so the sorted capacities bound the scan
+			int end = offsets[currentNode + 1];
+			for (int e = offsets[currentNode]; e < end && bandwidths[e] >= demand; e++) {
+				if (capacity.getResidual(e) < demand) {
+					continue;
+				}
+				int targetNode = targets[e];
+				int weightToTarget = currentDistance + weights[e];
+				if (weightToTarget < state.getDistance(targetNode)) {
+					state.update(targetNode, weightToTarget, currentNode);
+					parentEdge[targetNode] = e;
+					vertexQueue.push(targetNode, weightToTarget);
+				}
+			}
+		}
+	}
+
+	// get the number of admitted demands
+	public long getAdmitted() {
+		return admitted.get();
+	}
+
+	// get the number of rejected demands
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	// get the number of routings repeated after a lost reservation race
+	public long getRetries() {
+		return retries.get();
+	}
+}
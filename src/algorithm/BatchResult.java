@@ -0,0 +1,54 @@
+package algorithm;
+
+import java.util.Arrays;
+
+// Compact answers of a batch of (source, destination, bandwidth) requests. All paths
+// share one array of vertex names; the path of request i is stored at
+// pathOffsets[i] .. pathOffsets[i + 1] - 1.
+public final class BatchResult {
+
+	private final int[] distances;
+	private final int[] pathOffsets;
+	private final int[] pathVertices;
+
+	BatchResult(int[] distances, int[] pathOffsets, int[] pathVertices) {
+		this.distances = distances;
+		this.pathOffsets = pathOffsets;
+		this.pathVertices = pathVertices;
+	}
+
+	// get the number of requests
+	public int size() {
+		return distances.length;
+	}
+
+	// get the total weight of a request's path, Integer.MAX_VALUE if no path exists
+	public int getDistance(int request) {
+		return distances[request];
+	}
+
+	// check whether a path was found for a request
+	public boolean isFound(int request) {
+		return distances[request] != Integer.MAX_VALUE;
+	}
+
+	// get the number of vertices on a request's path
+	public int getPathLength(int request) {
+		return pathOffsets[request + 1] - pathOffsets[request];
+	}
+
+	// get the k-th vertex name on a request's path
+	public int getPathVertex(int request, int k) {
+		return pathVertices[pathOffsets[request] + k];
+	}
+
+	// copy the vertex names of a request's path
+	public int[] getPath(int request) {
+		return Arrays.copyOfRange(pathVertices, pathOffsets[request], pathOffsets[request + 1]);
+	}
+
+	// get the answer of a request as a PathResult
+	public PathResult getResult(int request) {
+		return new PathResult(getPath(request), distances[request]);
+	}
+}
@@ -0,0 +1,160 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import graph.CSRGraph;
+
+// Answer batches of (source, destination, bandwidth) requests. Requests are grouped
+// by (source, bandwidth), every group builds its shortest-path tree once and
+// answers all of its destinations from it, and the groups run on a worker pool.
+public class BatchRouter {
+
+	private final Dijkstra engine;
+	private final ExecutorService pool;
+
+	// create the router on the common fork-join pool
+	public BatchRouter(CSRGraph graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	// create the router on the given worker pool
+	public BatchRouter(CSRGraph graph, ExecutorService pool) {
+		this.engine = new Dijkstra(graph);
+		this.pool = pool;
+	}
+
+	// answer request i = (sourceIDs[i], destinationIDs[i], bandwidths[i]) for every i
+	public BatchResult route(int[] sourceIDs, int[] destinationIDs, int[] bandwidths) {
+
+		int numRequests = sourceIDs.length;
+		if (destinationIDs.length != numRequests || bandwidths.length != numRequests) {
+			throw new IllegalArgumentException("Request arrays differ in length");
+		}
+		CSRGraph graph = engine.getGraph();
+
+		// assign a group to every distinct (source, bandwidth) pair
+		Map<Long, Integer> groupIds = new HashMap<Long, Integer>();
+		int[] groupOf = new int[numRequests];
+		for (int r = 0; r < numRequests; r++) {
+			long key = ((long) sourceIDs[r] << 32) | (bandwidths[r] & 0xFFFFFFFFL);
+			Integer group = groupIds.get(key);
+			if (group == null) {
+				group = groupIds.size();
+				groupIds.put(key, group);
+			}
+			groupOf[r] = group;
+		}
+
+		// list the requests of every group next to each other
+		int numGroups = groupIds.size();
+		int[] groupOffsets = new int[numGroups + 1];
+		for (int r = 0; r < numRequests; r++) {
+			groupOffsets[groupOf[r] + 1]++;
+		}
+		for (int g = 0; g < numGroups; g++) {
+			groupOffsets[g + 1] += groupOffsets[g];
+		}
+		int[] next = Arrays.copyOf(groupOffsets, numGroups);
+		int[] requests = new int[numRequests];
+		for (int r = 0; r < numRequests; r++) {
+			requests[next[groupOf[r]]++] = r;
+		}
+
+		// one tree per group, each task writes the distances and path lengths of its own requests
+		int[] distances = new int[numRequests];
+		int[] pathLengths = new int[numRequests];
+		List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>(numGroups);
+		for (int g = 0; g < numGroups; g++) {
+			int from = groupOffsets[g];
+			int to = groupOffsets[g + 1];
+			tasks.add(() -> routeGroup(graph, requests, from, to, sourceIDs, destinationIDs, bandwidths,
+					distances, pathLengths));
+		}
+		int[][] groupPaths = invokeAll(tasks);
+
+		// concatenate the paths in request order
+		int[] pathOffsets = new int[numRequests + 1];
+		for (int r = 0; r < numRequests; r++) {
+			pathOffsets[r + 1] = pathOffsets[r] + pathLengths[r];
+		}
+		int[] pathVertices = new int[pathOffsets[numRequests]];
+		for (int g = 0; g < numGroups; g++) {
+			int position = 0;
+			for (int k = groupOffsets[g]; k < groupOffsets[g + 1]; k++) {
+				int r = requests[k];
+				System.arraycopy(groupPaths[g], position, pathVertices, pathOffsets[r], pathLengths[r]);
+				position += pathLengths[r];
+			}
+		}
+
+		return new BatchResult(distances, pathOffsets, pathVertices);
+	}
+
+	// build the tree of one group and answer its requests, returns their concatenated paths
+	private int[] routeGroup(CSRGraph graph, int[] requests, int from, int to, int[] sourceIDs,
+			int[] destinationIDs, int[] bandwidths, int[] distances, int[] pathLengths) {
+
+		int first = requests[from];
+		int source = graph.indexOf(sourceIDs[first]);
+		if (source == -1) { // unknown source, no request of the group has a path
+			for (int k = from; k < to; k++) {
+				distances[requests[k]] = Integer.MAX_VALUE;
+			}
+			return new int[0];
+		}
+
+		SearchState state = engine.search(source, bandwidths[first]);
+
+		int[] paths = new int[16];
+		int size = 0;
+		for (int k = from; k < to; k++) {
+			int r = requests[k];
+			int destination = graph.indexOf(destinationIDs[r]);
+			int distance = destination == -1 ? Integer.MAX_VALUE : state.getDistance(destination);
+			distances[r] = distance;
+			if (distance == Integer.MAX_VALUE) {
+				continue;
+			}
+
+			int length = 0;
+			for (int v = destination; v != -1; v = state.getPrevious(v)) {
+				length++;
+			}
+			if (size + length > paths.length) {
+				paths = Arrays.copyOf(paths, Math.max(paths.length * 2, size + length));
+			}
+			int position = size + length;
+			for (int v = destination; v != -1; v = state.getPrevious(v)) {
+				paths[--position] = graph.getName(v); // fill the path in reverse order
+			}
+			size += length;
+			pathLengths[r] = length;
+		}
+		return paths;
+	}
+
+	private int[][] invokeAll(List<Callable<int[]>> tasks) {
+		try {
+			List<Future<int[]>> futures = pool.invokeAll(tasks);
+			int[][] results = new int[futures.size()][];
+			for (int i = 0; i < results.length; i++) {
+				results[i] = futures.get(i).get();
+			}
+			return results;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while routing batch", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("Error routing batch", ex.getCause());
+		}
+	}
+}
@@ -1,17 +1,26 @@
 package algorithm;
 
+import graph.CSRGraph;
 import graph.Edge;
 import graph.Vertex;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BellmanFord extends ShortestPath {
 
     private List<Vertex> vertices;
+    private Map<Integer, Integer> indexByName; // vertex name -> position in vertices
+    private BellmanFordResult result; // last search on a CSR snapshot
 
     public BellmanFord(List<Vertex> vertices) {
         this.vertices = vertices;
+        this.indexByName = new HashMap<>(vertices.size() * 2);
+        for (int i = 0; i < vertices.size(); i++) {
+            indexByName.put(vertices.get(i).name, i);
+        }
     }
 
     public List<Vertex> findShortestPath(int sourceID, int destinationID, int bandwidth) {
@@ -21,13 +30,16 @@ public class BellmanFord extends ShortestPath {
 
         initialize(sourceID, distance, predecessor);
 
-        // Relax edges repeatedly
-        for (int i = 1; i < numVertices; i++) {
-            for (Vertex vertex : vertices) {
-                if (vertex.adjacencies != null) {
+        // Relax edges repeatedly, stop after a round without changes
+        boolean changed = true;
+        for (int i = 1; i < numVertices && changed; i++) {
+            changed = false;
+            for (int u = 0; u < numVertices; u++) {
+                Vertex vertex = vertices.get(u);
+                if (vertex.adjacencies != null && distance[u] != Integer.MAX_VALUE) {
                     for (Edge edge : vertex.adjacencies) {
                         if (edge.getBandwidth() >= bandwidth) {
-                            relax(edge, distance, predecessor);
+                            changed |= relax(u, edge, distance, predecessor);
                         }
                     }
                 }
@@ -35,10 +47,11 @@ public class BellmanFord extends ShortestPath {
         }
 
         // Check for negative cycles
-        for (Vertex vertex : vertices) {
+        for (int u = 0; u < numVertices && changed; u++) {
+            Vertex vertex = vertices.get(u);
             if (vertex.adjacencies != null) {
                 for (Edge edge : vertex.adjacencies) {
-                    if (edge.getBandwidth() >= bandwidth && relax(edge, distance, predecessor)) {
+                    if (edge.getBandwidth() >= bandwidth && relax(u, edge, distance, predecessor)) {
                         // If relaxation occurs in the last iteration, there's a negative cycle
                         System.out.println("Graph contains a negative weight cycle.");
                         return new ArrayList<>();
@@ -54,13 +67,33 @@ public class BellmanFord extends ShortestPath {
         return path;
     }
 
-    private int getIndex(int vertexID) {
-        for (int i = 0; i < vertices.size(); i++) {
-            if (vertices.get(i).name == vertexID) {
-                return i;
-            }
+    public BellmanFord() {
+        this.vertices = null;
+    }
+
+    // Find the shortest path on a CSR snapshot, returned as the list of vertex names. The
+    // path is empty for unknown names, unreachable destinations and negative cycles;
+    // getResult() tells them apart
+    public int[] findShortestPath(CSRGraph graph, int sourceID, int destinationID, int bandwidth) {
+        int sourceIndex = graph.indexOf(sourceID);
+        if (sourceIndex == -1) {
+            result = null;
+            return new int[0];
         }
-        return -1;
+
+        result = new SPFA(graph).searchIndex(sourceIndex, bandwidth);
+        return result.getPath(destinationID);
+    }
+
+    // get the result of the last CSR search with its distances and negative cycle, null if
+    // the source name was unknown
+    public BellmanFordResult getResult() {
+        return result;
+    }
+
+    private int getIndex(int vertexID) {
+        Integer index = indexByName.get(vertexID);
+        return index == null ? -1 : index;
     }
 
     private void initialize(int sourceID, int[] distance, int[] predecessor) {
@@ -72,8 +105,7 @@ public class BellmanFord extends ShortestPath {
         distance[getIndex(sourceID)] = 0;
     }
 
-    private boolean relax(Edge edge, int[] distance, int[] predecessor) {
-        int sourceIndex = getIndex(edge.getStartVertex().name);
+    private boolean relax(int sourceIndex, Edge edge, int[] distance, int[] predecessor) {
         int targetIndex = getIndex(edge.getTargetVertex().name);
         int weight = edge.getEdgeWeight();
 
@@ -0,0 +1,104 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Result of a single-source Bellman-Ford search. Either it holds the distances and
+// predecessors of all vertices, or the search found a negative cycle reachable from
+// the source and the distances are meaningless.
+public final class BellmanFordResult {
+
+	private final CSRGraph graph;
+	private final int sourceIndex;
+	private final int[] distance; // distance of every vertex index, Integer.MAX_VALUE if unreached
+	private final int[] predecessor; // predecessor of every vertex index, -1 if none
+	private final int[] negativeCycle; // vertex names of the cycle, null if there is none
+	private final int rounds;
+	private final long relaxations;
+
+	public BellmanFordResult(CSRGraph graph, int sourceIndex, int[] distance, int[] predecessor, int[] negativeCycle,
+			int rounds, long relaxations) {
+		this.graph = graph;
+		this.sourceIndex = sourceIndex;
+		this.distance = distance;
+		this.predecessor = predecessor;
+		this.negativeCycle = negativeCycle;
+		this.rounds = rounds;
+		this.relaxations = relaxations;
+	}
+
+	// get the index of the source vertex
+	public int getSourceIndex() {
+		return sourceIndex;
+	}
+
+	// check whether a negative cycle is reachable from the source
+	public boolean hasNegativeCycle() {
+		return negativeCycle != null;
+	}
+
+	// get the vertex names of the negative cycle in edge order, empty if there is none
+	public int[] getNegativeCycle() {
+		return negativeCycle == null ? new int[0] : negativeCycle.clone();
+	}
+
+	// get the distance to a vertex name, Integer.MAX_VALUE if unreachable
+	public int getDistance(int destinationID) {
+		int destination = graph.indexOf(destinationID);
+		return destination == -1 ? Integer.MAX_VALUE : distance[destination];
+	}
+
+	// get the vertex names of the path to a vertex name, only the source for the source
+	// itself, empty if unreachable or on a negative cycle
+	public int[] getPath(int destinationID) {
+		int destination = graph.indexOf(destinationID);
+		if (negativeCycle != null || destination == -1 || distance[destination] == Integer.MAX_VALUE) {
+			return new int[0];
+		}
+
+		int length = 0;
+		for (int vertex = destination; vertex != -1; vertex = predecessor[vertex]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int vertex = destination; vertex != -1; vertex = predecessor[vertex]) {
+			path[--length] = graph.getName(vertex);
+		}
+		return path;
+	}
+
+	// get the path and distance to a vertex name
+	public PathResult query(int destinationID) {
+		int[] path = getPath(destinationID);
+		return new PathResult(path, path.length == 0 ? Integer.MAX_VALUE : getDistance(destinationID));
+	}
+
+	// get the distance of a vertex index
+	public int getIndexDistance(int index) {
+		return distance[index];
+	}
+
+	// get the predecessor of a vertex index, -1 if none
+	public int getIndexPredecessor(int index) {
+		return predecessor[index];
+	}
+
+	// get the number of passes over the queue until no distance changed
+	public int getRounds() {
+		return rounds;
+	}
+
+	// get the number of successful edge relaxations
+	public long getRelaxations() {
+		return relaxations;
+	}
+
+	// get the summary of the search
+	public String toString() {
+		if (negativeCycle != null) {
+			return "negative cycle " + Arrays.toString(negativeCycle);
+		}
+		return rounds + " rounds, " + relaxations + " relaxations";
+	}
+}
@@ -0,0 +1,127 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Point-to-point Dijkstra that searches forward from the source on the graph and
+// backward from the target on its reverse snapshot, always expanding the side with
+// the smaller queue. Every edge that reaches a vertex seen by the other side closes
+// a candidate path, and the search stops once the two queue minima together cannot
+// beat the best candidate. Each thread uses its own pair of search states.
+public class BidirectionalDijkstra {
+
+	private final CSRGraph graph;
+	private final CSRGraph reverse;
+	private final ThreadLocal<SearchState[]> states;
+
+	// create the engine with 4-ary heaps
+	public BidirectionalDijkstra(CSRGraph graph) {
+		this(graph, 4);
+	}
+
+	// create the engine with the given heap arity
+	public BidirectionalDijkstra(CSRGraph graph, int arity) {
+		this.graph = graph;
+		this.reverse = graph.reverse();
+		this.states = ThreadLocal.withInitial(() -> new SearchState[] {
+				new SearchState(graph.vertexCount(), arity), new SearchState(graph.vertexCount(), arity) });
+	}
+
+	// get the graph of the engine
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// compute the shortest path between two vertex names, empty if either name is not in the graph
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE, 0);
+		}
+		return shortestPathIndex(source, destination, bandwidth);
+	}
+
+	// compute the shortest path between two vertex indices over edges with enough bandwidth
+	public PathResult shortestPathIndex(int sourceIndex, int destinationIndex, int bandwidth) {
+
+		SearchState[] pair = states.get();
+		SearchState forward = pair[0];
+		SearchState backward = pair[1];
+		forward.reset();
+		backward.reset();
+
+		if (sourceIndex == destinationIndex) {
+			return new PathResult(new int[] { graph.getName(sourceIndex) }, 0, 0);
+		}
+
+		IndexedHeap forwardQueue = forward.getQueue();
+		IndexedHeap backwardQueue = backward.getQueue();
+		forward.update(sourceIndex, 0, -1);
+		forwardQueue.push(sourceIndex, 0);
+		backward.update(destinationIndex, 0, -1);
+		backwardQueue.push(destinationIndex, 0);
+
+		Meeting meeting = new Meeting();
+		while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+			if ((long) forwardQueue.peekKey() + backwardQueue.peekKey() >= meeting.distance) {
+				break; // no path through unsettled vertices can be shorter
+			}
+			if (forwardQueue.size() <= backwardQueue.size()) {
+				expand(graph, forward, backward, bandwidth, meeting);
+			} else {
+				expand(reverse, backward, forward, bandwidth, meeting);
+			}
+		}
+
+		int settled = forward.getSettledCount() + backward.getSettledCount();
+		if (meeting.vertex == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE, settled);
+		}
+
+		int[] head = forward.pathTo(graph, meeting.vertex); // source .. meeting vertex
+		int length = head.length;
+		for (int v = backward.getPrevious(meeting.vertex); v != -1; v = backward.getPrevious(v)) {
+			length++;
+		}
+		int[] path = Arrays.copyOf(head, length);
+		int i = head.length;
+		for (int v = backward.getPrevious(meeting.vertex); v != -1; v = backward.getPrevious(v)) {
+			path[i++] = graph.getName(v); // meeting vertex .. destination
+		}
+		return new PathResult(path, (int) meeting.distance, settled);
+	}
+
+	// settle the minimum vertex of one side and relax its edges with enough bandwidth
+	private static void expand(CSRGraph graph, SearchState state, SearchState other, int bandwidth,
+			Meeting meeting) {
+
+		IndexedHeap queue = state.getQueue();
+		int currentNode = queue.poll();
+		int currentDistance = state.getDistance(currentNode);
+		state.settled();
+
+		int end = graph.offsets[currentNode + 1];
+		for (int e = graph.offsets[currentNode]; e < end && graph.bandwidths[e] >= bandwidth; e++) {
+			int targetNode = graph.targets[e];
+			int weightToTarget = currentDistance + graph.weights[e];
+			if (weightToTarget < state.getDistance(targetNode)) {
+				state.update(targetNode, weightToTarget, currentNode);
+				queue.push(targetNode, weightToTarget);
+			}
+
+			int remaining = other.getDistance(targetNode);
+			if (remaining != Integer.MAX_VALUE && (long) state.getDistance(targetNode) + remaining < meeting.distance) {
+				meeting.distance = (long) state.getDistance(targetNode) + remaining;
+				meeting.vertex = targetNode;
+			}
+		}
+	}
+
+	// best path found so far, through the vertex where both searches met
+	private static final class Meeting {
+		private long distance = Integer.MAX_VALUE;
+		private int vertex = -1;
+	}
+}
@@ -0,0 +1,256 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import graph.CSRGraph;
+
+// Cache-blocked Floyd-Warshall on flat row-major matrices. Every round of the
+// pivot block runs three phases: the diagonal tile, then the tiles in the pivot
+// row and column, then all remaining tiles. The tiles of the last two phases are
+// independent and run in parallel on a ForkJoinPool.
+//
+// The predecessor matrix has the meaning of FloydWarshall.getIntermediateVertices():
+// entry [i][j] is the vertex before j on the shortest path from i, -1 if none.
+public class BlockedFloydWarshall {
+
+	// unreachable distance, small enough that adding an edge weight cannot overflow
+	static final int INF = Integer.MAX_VALUE / 2;
+
+	// largest number of entries of a flat matrix, some VMs reserve header words in an array
+	static final int MAX_MATRIX_ENTRIES = Integer.MAX_VALUE - 8;
+
+	private final ForkJoinPool pool;
+	private final int blockSize;
+	private final MinPlusKernel kernel;
+
+	private CSRGraph graph;
+	private int numVertices;
+	private int[] distance; // distance[i * n + j], INF if unreachable
+	private int[] predecessor; // predecessor[i * n + j], -1 if none
+
+	// create the engine on the common pool with 64 x 64 tiles
+	public BlockedFloydWarshall() {
+		this(ForkJoinPool.commonPool(), 64);
+	}
+
+	// create the engine on the given pool and tile size with the preferred kernel
+	public BlockedFloydWarshall(ForkJoinPool pool, int blockSize) {
+		this(pool, blockSize, MinPlusKernel.preferred());
+	}
+
+	// create the engine on the given pool, tile size and row kernel
+	public BlockedFloydWarshall(ForkJoinPool pool, int blockSize, MinPlusKernel kernel) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+		}
+		this.pool = pool;
+		this.blockSize = blockSize;
+		this.kernel = kernel;
+	}
+
+	// get the row kernel of the engine
+	public MinPlusKernel getKernel() {
+		return kernel;
+	}
+
+	// find the shortest path between two vertex names over edges with enough bandwidth,
+	// empty if either name is not in the graph
+	public int[] findShortestPath(CSRGraph graph, int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			return new int[0]; // unknown names, skip the all-pairs computation
+		}
+		compute(graph, bandwidth);
+		return getPath(source, destination);
+	}
+
+	// compute all pairs of shortest paths over edges with enough bandwidth
+	public void compute(CSRGraph graph, int bandwidth) {
+		initialize(graph, bandwidth);
+		run();
+	}
+
+	// get the graph of the last computation
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the number of vertices of the last computation
+	public int vertexCount() {
+		return numVertices;
+	}
+
+	// get the distance between two indices, Integer.MAX_VALUE if unreachable
+	public int getDistance(int sourceIndex, int destinationIndex) {
+		int d = distance[sourceIndex * numVertices + destinationIndex];
+		return d >= INF ? Integer.MAX_VALUE : d;
+	}
+
+	// get the vertex before the destination on the path from the source, -1 if none
+	public int getIntermediate(int sourceIndex, int destinationIndex) {
+		return predecessor[sourceIndex * numVertices + destinationIndex];
+	}
+
+	// get the flat row-major distance matrix, unreachable pairs hold a value >= Integer.MAX_VALUE / 2
+	public int[] getDistanceMatrix() {
+		return distance;
+	}
+
+	// get the flat row-major predecessor matrix
+	public int[] getPredecessorMatrix() {
+		return predecessor;
+	}
+
+	// copy the predecessors in the layout of FloydWarshall.getIntermediateVertices()
+	public int[][] getIntermediateVertices() {
+		int[][] intermediateVertices = new int[numVertices][];
+		for (int i = 0; i < numVertices; i++) {
+			intermediateVertices[i] = Arrays.copyOfRange(predecessor, i * numVertices, (i + 1) * numVertices);
+		}
+		return intermediateVertices;
+	}
+
+	// reconstruct the vertex names of the path between two indices, only the source for
+	// the source itself (the diagonal holds cycles), empty if unreachable
+	public int[] getPath(int sourceIndex, int destinationIndex) {
+		if (sourceIndex == -1 || destinationIndex == -1) {
+			return new int[0];
+		}
+		if (sourceIndex == destinationIndex) {
+			return new int[] { graph.getName(sourceIndex) };
+		}
+		if (distance[sourceIndex * numVertices + destinationIndex] >= INF) {
+			return new int[0];
+		}
+
+		int row = sourceIndex * numVertices;
+		int length = 1;
+		for (int v = destinationIndex; v != sourceIndex; v = predecessor[row + v]) {
+			length++;
+		}
+		int[] path = new int[length];
+		path[0] = graph.getName(sourceIndex);
+		for (int v = destinationIndex; v != sourceIndex; v = predecessor[row + v]) {
+			path[--length] = graph.getName(v);
+		}
+		return path;
+	}
+
+	// get the number of entries of an n x n flat matrix, rejecting sizes an array cannot hold
+	static int matrixEntries(int n) {
+		long entries = (long) n * n;
+		if (entries > MAX_MATRIX_ENTRIES) {
+			throw new IllegalArgumentException("Too many vertices for an all-pairs matrix: " + n + " (" + entries
+					+ " entries, at most " + MAX_MATRIX_ENTRIES + ")");
+		}
+		return (int) entries;
+	}
+
+	// fill the matrices with the edges that have enough bandwidth
+	private void initialize(CSRGraph graph, int bandwidth) {
+		int n = graph.vertexCount();
+		int entries = matrixEntries(n);
+		this.graph = graph;
+		this.numVertices = n;
+		this.distance = new int[entries];
+		this.predecessor = new int[entries];
+		Arrays.fill(distance, INF);
+		Arrays.fill(predecessor, -1);
+
+		for (int i = 0; i < n; i++) {
+			int end = graph.eligibleEnd(i, bandwidth);
+			for (int e = graph.offsets[i]; e < end; e++) {
+				int slot = i * n + graph.targets[e];
+				if (graph.weights[e] < distance[slot]) { // keep the lightest parallel edge
+					distance[slot] = graph.weights[e];
+					predecessor[slot] = i;
+				}
+			}
+		}
+	}
+
+	// run the three phases for every pivot block
+	private void run() {
+		int numBlocks = (numVertices + blockSize - 1) / blockSize;
+		List<int[]> pivotTiles = new ArrayList<int[]>();
+		List<int[]> otherTiles = new ArrayList<int[]>();
+
+		for (int kb = 0; kb < numBlocks; kb++) {
+			relaxTile(kb, kb, kb); // phase 1: diagonal tile
+
+			pivotTiles.clear(); // phase 2: tiles in the pivot row and column
+			for (int b = 0; b < numBlocks; b++) {
+				if (b != kb) {
+					pivotTiles.add(new int[] { kb, b });
+					pivotTiles.add(new int[] { b, kb });
+				}
+			}
+			pool.invoke(new TileTask(pivotTiles, 0, pivotTiles.size(), kb));
+
+			otherTiles.clear(); // phase 3: all remaining tiles
+			for (int ib = 0; ib < numBlocks; ib++) {
+				for (int jb = 0; jb < numBlocks; jb++) {
+					if (ib != kb && jb != kb) {
+						otherTiles.add(new int[] { ib, jb });
+					}
+				}
+			}
+			pool.invoke(new TileTask(otherTiles, 0, otherTiles.size(), kb));
+		}
+	}
+
+	// relax tile (ib, jb) through every pivot vertex of block kb
+	void relaxTile(int ib, int jb, int kb) {
+		int n = numVertices;
+		int iEnd = Math.min((ib + 1) * blockSize, n);
+		int jStart = jb * blockSize;
+		int jEnd = Math.min(jStart + blockSize, n);
+		int kEnd = Math.min((kb + 1) * blockSize, n);
+
+		for (int k = kb * blockSize; k < kEnd; k++) {
+			int rowK = k * n;
+			for (int i = ib * blockSize; i < iEnd; i++) {
+				int rowI = i * n;
+				int dik = distance[rowI + k];
+				if (dik >= INF) {
+					continue; // no path from i to k
+				}
+				kernel.relaxRow(distance, predecessor, rowI, rowK, jStart, jEnd, dik);
+			}
+		}
+	}
+
+	// relax a range of independent tiles, split in halves down to single tiles
+	private final class TileTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<int[]> tiles;
+		private final int from;
+		private final int to;
+		private final int kb;
+
+		private TileTask(List<int[]> tiles, int from, int to, int kb) {
+			this.tiles = tiles;
+			this.from = from;
+			this.to = to;
+			this.kb = kb;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= 1) {
+				for (int t = from; t < to; t++) {
+					relaxTile(tiles.get(t)[0], tiles.get(t)[1], kb);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new TileTask(tiles, from, middle, kb), new TileTask(tiles, middle, to, kb));
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package algorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// Contraction hierarchy of a topology for one bandwidth threshold. Every vertex has
+// a rank, the upward graph holds the edges from a vertex to higher ranked vertices
+// and the downward graph holds, at every vertex, the edges coming in from higher
+// ranked vertices. Shortcut edges remember the contracted middle vertex they
+// replace, so paths unpack back into original vertices. Vertices of an
+// uncontracted core keep their edges to all other core vertices in both graphs.
+//
+// The hierarchy is written as little-endian ints:
+//
+//   magic, version, numVertices, bandwidth, numUpEdges, numDownEdges
+//   names[n], rank[n], upOffsets[n + 1], upTargets, upWeights, upMiddle,
+//   downOffsets[n + 1], downSources, downWeights, downMiddle
+public final class ContractionHierarchy {
+
+	public static final String EXTENSION = ".ch";
+
+	private static final int MAGIC = 0x43484945; // "CHIE"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 24;
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	final int numVertices;
+	final int bandwidth;
+	final int[] names; // vertex name of every index
+	final int[] rank; // contraction order of every index
+	final int[] upOffsets;
+	final int[] upTargets;
+	final int[] upWeights;
+	final int[] upMiddle; // contracted vertex of a shortcut, -1 for an original edge
+	final int[] downOffsets;
+	final int[] downSources;
+	final int[] downWeights;
+	final int[] downMiddle;
+	private final Map<Integer, Integer> indexByName; // null when names equal indices
+
+	ContractionHierarchy(int bandwidth, int[] names, int[] rank, int[] upOffsets, int[] upTargets, int[] upWeights,
+			int[] upMiddle, int[] downOffsets, int[] downSources, int[] downWeights, int[] downMiddle) {
+		this.numVertices = names.length;
+		this.bandwidth = bandwidth;
+		this.names = names;
+		this.rank = rank;
+		this.upOffsets = upOffsets;
+		this.upTargets = upTargets;
+		this.upWeights = upWeights;
+		this.upMiddle = upMiddle;
+		this.downOffsets = downOffsets;
+		this.downSources = downSources;
+		this.downWeights = downWeights;
+		this.downMiddle = downMiddle;
+
+		boolean identity = true;
+		for (int i = 0; i < numVertices && identity; i++) {
+			identity = names[i] == i;
+		}
+		Map<Integer, Integer> index = null;
+		if (!identity) {
+			index = new HashMap<Integer, Integer>(numVertices * 2);
+			for (int i = 0; i < numVertices; i++) {
+				index.put(names[i], i);
+			}
+		}
+		this.indexByName = index;
+	}
+
+	// get the number of vertices
+	public int vertexCount() {
+		return numVertices;
+	}
+
+	// get the bandwidth threshold the hierarchy was built for
+	public int getBandwidth() {
+		return bandwidth;
+	}
+
+	// get the contraction order of a vertex index, 0 was contracted first
+	public int getRank(int index) {
+		return rank[index];
+	}
+
+	// get the number of upward edges
+	public int upEdgeCount() {
+		return upTargets.length;
+	}
+
+	// get the number of downward edges
+	public int downEdgeCount() {
+		return downSources.length;
+	}
+
+	// get the number of shortcut edges in both graphs
+	public int shortcutCount() {
+		int count = 0;
+		for (int middle : upMiddle) {
+			count += middle == -1 ? 0 : 1;
+		}
+		for (int middle : downMiddle) {
+			count += middle == -1 ? 0 : 1;
+		}
+		return count;
+	}
+
+	// get the vertex name of an index
+	public int getName(int index) {
+		return names[index];
+	}
+
+	// get the index of a vertex name, -1 if the vertex does not exist
+	public int indexOf(int vertexName) {
+		if (indexByName == null) {
+			return vertexName >= 0 && vertexName < numVertices ? vertexName : -1;
+		}
+		Integer index = indexByName.get(vertexName);
+		return index == null ? -1 : index;
+	}
+
+	// get the contracted middle vertex of the edge between two indices, -1 for an original edge
+	int middleOf(int from, int to) {
+		if (rank[from] < rank[to]) {
+			for (int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+				if (upTargets[e] == to) {
+					return upMiddle[e];
+				}
+			}
+		} else {
+			for (int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+				if (downSources[e] == from) {
+					return downMiddle[e];
+				}
+			}
+		}
+		throw new IllegalStateException("No hierarchy edge from " + from + " to " + to);
+	}
+
+	// export the hierarchy so it can be loaded without contracting again
+	public void write(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(numVertices).putInt(bandwidth).putInt(upTargets.length)
+					.putInt(downSources.length);
+			for (int[] values : new int[][] { names, rank, upOffsets, upTargets, upWeights, upMiddle, downOffsets,
+					downSources, downWeights, downMiddle }) {
+				writeInts(channel, buffer, values);
+			}
+			flush(channel, buffer);
+		}
+	}
+
+	// load a hierarchy written by write()
+	public static ContractionHierarchy read(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining() && channel.read(header) != -1) {
+				// read the complete header
+			}
+			header.flip();
+			if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+				throw new IOException("Not a contraction hierarchy file '" + fileName + "'");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported contraction hierarchy version " + version + " in '" + fileName + "'");
+			}
+			int n = header.getInt();
+			int bandwidth = header.getInt();
+			int up = header.getInt();
+			int down = header.getInt();
+
+			long expected = HEADER_BYTES + 4L * (2L * n + 2L * (n + 1) + 3L * up + 3L * down);
+			if (channel.size() < expected) {
+				throw new IOException("Truncated contraction hierarchy file '" + fileName + "'");
+			}
+			IntBuffer view = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, expected - HEADER_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+			return new ContractionHierarchy(bandwidth, next(view, n), next(view, n), next(view, n + 1),
+					next(view, up), next(view, up), next(view, up), next(view, n + 1), next(view, down),
+					next(view, down), next(view, down));
+		}
+	}
+
+	private static int[] next(IntBuffer view, int length) {
+		int[] array = new int[length];
+		view.get(array); // bulk copy out of the mapping
+		return array;
+	}
+
+	private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+		int written = 0;
+		while (written < values.length) {
+			if (buffer.remaining() < 4) {
+				flush(channel, buffer);
+			}
+			int count = Math.min(values.length - written, buffer.remaining() / 4);
+			buffer.asIntBuffer().put(values, written, count);
+			buffer.position(buffer.position() + 4 * count);
+			written += count;
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
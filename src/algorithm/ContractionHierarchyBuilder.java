@@ -0,0 +1,355 @@
+package algorithm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import graph.CSRGraph;
+import graph.Vertex;
+
+// Parallel contraction hierarchy preprocessing. Vertices are contracted in rounds:
+// every round picks the vertices whose priority is lower than that of all their
+// remaining neighbours, an independent set, and contracts them at once. The
+// witness searches of a round run in parallel on the pool and never pass through
+// a vertex of the same round, so a missing witness only costs an extra shortcut.
+// The shortcuts are then applied sequentially and the priorities of the affected
+// neighbours are recomputed in parallel.
+//
+// The priority is the edge difference plus the number of contracted neighbours plus
+// the hierarchy level of the vertex. Witness searches stop after a fixed number of
+// settled vertices. Once the mean degree of the remaining graph exceeds the core
+// degree, as happens on random topologies without small separators, the remaining
+// vertices are ranked without contraction and kept as a core that the query
+// searches in both directions.
+public class ContractionHierarchyBuilder {
+
+	private static final int DEFAULT_WITNESS_LIMIT = 50;
+	private static final int DEFAULT_CORE_DEGREE = 16;
+
+	private final ForkJoinPool pool;
+	private final int witnessLimit;
+	private final int coreDegree;
+
+	// create the builder on the common pool
+	public ContractionHierarchyBuilder() {
+		this(ForkJoinPool.commonPool(), DEFAULT_WITNESS_LIMIT, DEFAULT_CORE_DEGREE);
+	}
+
+	// create the builder on the given pool, witness search limit and core degree
+	public ContractionHierarchyBuilder(ForkJoinPool pool, int witnessLimit, int coreDegree) {
+		if (witnessLimit < 1) {
+			throw new IllegalArgumentException("Witness limit must be positive: " + witnessLimit);
+		}
+		this.pool = pool;
+		this.witnessLimit = witnessLimit;
+		this.coreDegree = coreDegree;
+	}
+
+	// contract a loaded Vertex/Edge topology over edges with enough bandwidth
+	public ContractionHierarchy build(List<Vertex> vertices, int bandwidth) {
+		return build(CSRGraph.fromVertices(vertices), bandwidth);
+	}
+
+	// contract a CSR snapshot over edges with enough bandwidth
+	public ContractionHierarchy build(CSRGraph graph, int bandwidth) {
+		Contraction contraction = new Contraction(graph, bandwidth);
+		try {
+			return pool.submit(contraction::run).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Contraction interrupted", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("Contraction failed", ex.getCause());
+		}
+	}
+
+	// state of one preprocessing run
+	private final class Contraction {
+
+		private final CSRGraph graph;
+		private final int bandwidth;
+		private final int numVertices;
+		private final Adjacency[] out; // remaining outgoing edges of every vertex
+		private final Adjacency[] in; // remaining incoming edges of every vertex
+		private final int[] rank;
+		private final int[] priority;
+		private final int[] level;
+		private final int[] deletedNeighbours;
+		private final int[] round; // round in which a vertex was selected, 0 if not yet
+		private final ThreadLocal<SearchState> states;
+
+		private Contraction(CSRGraph graph, int bandwidth) {
+			this.graph = graph;
+			this.bandwidth = bandwidth;
+			this.numVertices = graph.vertexCount();
+			this.out = new Adjacency[numVertices];
+			this.in = new Adjacency[numVertices];
+			this.rank = new int[numVertices];
+			this.priority = new int[numVertices];
+			this.level = new int[numVertices];
+			this.deletedNeighbours = new int[numVertices];
+			this.round = new int[numVertices];
+			this.states = ThreadLocal.withInitial(() -> new SearchState(numVertices));
+
+			for (int v = 0; v < numVertices; v++) {
+				out[v] = new Adjacency();
+				in[v] = new Adjacency();
+			}
+			for (int v = 0; v < numVertices; v++) { // keep the lightest eligible edge per pair
+				int end = graph.eligibleEnd(v, bandwidth);
+				for (int e = graph.offsets[v]; e < end; e++) {
+					int target = graph.targets[e];
+					if (target != v) {
+						out[v].putMin(target, graph.weights[e], -1);
+						in[target].putMin(v, graph.weights[e], -1);
+					}
+				}
+			}
+		}
+
+		private ContractionHierarchy run() {
+			int[] remaining = IntStream.range(0, numVertices).toArray();
+			IntStream.of(remaining).parallel().forEach(v -> priority[v] = computePriority(v));
+
+			int nextRank = 0;
+			for (int currentRound = 1; remaining.length > 0; currentRound++) {
+
+				// the independent set of local priority minima
+				int[] selected = IntStream.of(remaining).parallel().filter(this::isLocalMinimum).toArray();
+				for (int v : selected) {
+					round[v] = currentRound;
+				}
+
+				int[][] shortcuts = new int[selected.length][];
+				final int excludedRound = currentRound;
+				IntStream.range(0, selected.length).parallel()
+						.forEach(i -> shortcuts[i] = findShortcuts(selected[i], excludedRound));
+
+				boolean[] affected = new boolean[numVertices];
+				for (int i = 0; i < selected.length; i++) {
+					contract(selected[i], shortcuts[i], affected);
+					rank[selected[i]] = nextRank++;
+				}
+
+				remaining = IntStream.of(remaining).filter(v -> round[v] == 0).toArray();
+				if (isCore(remaining)) {
+					for (int v : remaining) { // keep the rest uncontracted with all their edges
+						rank[v] = nextRank++;
+					}
+					break;
+				}
+				IntStream.of(remaining).parallel().filter(v -> affected[v])
+						.forEach(v -> priority[v] = computePriority(v));
+			}
+			return toHierarchy();
+		}
+
+		// check whether the remaining graph is too dense to contract further
+		private boolean isCore(int[] remaining) {
+			long edges = 0;
+			for (int v : remaining) {
+				edges += out[v].size;
+			}
+			return edges > (long) coreDegree * remaining.length;
+		}
+
+		// check whether a vertex has a lower priority than all its remaining neighbours
+		private boolean isLocalMinimum(int v) {
+			return isBelow(v, out[v]) && isBelow(v, in[v]);
+		}
+
+		private boolean isBelow(int v, Adjacency neighbours) {
+			for (int i = 0; i < neighbours.size; i++) {
+				int x = neighbours.vertices[i];
+				if (priority[x] < priority[v] || (priority[x] == priority[v] && tieBreak(x) < tieBreak(v))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		// scatter equal priorities, ordering them by index would let a ring contract one
+		// vertex per round
+		private int tieBreak(int v) {
+			int h = v * 0x9E3779B9;
+			return h ^ (h >>> 16); // a bijection, so distinct vertices never tie
+		}
+
+		// simulate the contraction of a vertex and rate it
+		private int computePriority(int v) {
+			int shortcuts = findShortcuts(v, -1).length / 3;
+			int edgeDifference = shortcuts - out[v].size - in[v].size;
+			return edgeDifference + deletedNeighbours[v] + level[v];
+		}
+
+		// find the shortcuts (source, target, weight) needed when a vertex is removed,
+		// witness paths avoid the vertices selected in the given round
+		private int[] findShortcuts(int v, int excludedRound) {
+			Adjacency incoming = in[v];
+			Adjacency outgoing = out[v];
+			int maxOut = 0;
+			for (int j = 0; j < outgoing.size; j++) {
+				maxOut = Math.max(maxOut, outgoing.weights[j]);
+			}
+
+			int[] shortcuts = new int[0];
+			int count = 0;
+			for (int i = 0; i < incoming.size; i++) {
+				int source = incoming.vertices[i];
+				int toVertex = incoming.weights[i];
+				SearchState state = witnessSearch(source, v, toVertex + maxOut, excludedRound);
+
+				for (int j = 0; j < outgoing.size; j++) {
+					int target = outgoing.vertices[j];
+					int via = toVertex + outgoing.weights[j];
+					if (target == source || state.getDistance(target) <= via) {
+						continue; // a witness path is at most as long as the path over v
+					}
+					if (count + 3 > shortcuts.length) {
+						shortcuts = Arrays.copyOf(shortcuts, Math.max(12, shortcuts.length * 2));
+					}
+					shortcuts[count++] = source;
+					shortcuts[count++] = target;
+					shortcuts[count++] = via;
+				}
+			}
+			return Arrays.copyOf(shortcuts, count);
+		}
+
+		// bounded Dijkstra over the remaining graph without the contracted vertex
+		private SearchState witnessSearch(int source, int skipped, int maxDistance, int excludedRound) {
+			SearchState state = states.get();
+			state.reset();
+			IndexedHeap queue = state.getQueue();
+			state.update(source, 0, -1);
+			queue.push(source, 0);
+
+			while (!queue.isEmpty() && state.getSettledCount() < witnessLimit) {
+				int currentNode = queue.poll();
+				state.settled();
+				int currentDistance = state.getDistance(currentNode);
+				if (currentDistance > maxDistance) {
+					break;
+				}
+				Adjacency edges = out[currentNode];
+				for (int i = 0; i < edges.size; i++) {
+					int targetNode = edges.vertices[i];
+					if (targetNode == skipped || (excludedRound != -1 && round[targetNode] == excludedRound)) {
+						continue;
+					}
+					int weightToTarget = currentDistance + edges.weights[i];
+					if (weightToTarget < state.getDistance(targetNode)) {
+						state.update(targetNode, weightToTarget, currentNode);
+						queue.push(targetNode, weightToTarget);
+					}
+				}
+			}
+			return state;
+		}
+
+		// remove a vertex from the remaining graph and insert its shortcuts
+		private void contract(int v, int[] shortcuts, boolean[] affected) {
+			for (int i = 0; i < out[v].size; i++) {
+				int target = out[v].vertices[i];
+				in[target].remove(v);
+				touch(v, target, affected);
+			}
+			for (int i = 0; i < in[v].size; i++) {
+				int source = in[v].vertices[i];
+				out[source].remove(v);
+				touch(v, source, affected);
+			}
+			for (int i = 0; i < shortcuts.length; i += 3) {
+				out[shortcuts[i]].putMin(shortcuts[i + 1], shortcuts[i + 2], v);
+				in[shortcuts[i + 1]].putMin(shortcuts[i], shortcuts[i + 2], v);
+			}
+		}
+
+		private void touch(int contracted, int neighbour, boolean[] affected) {
+			if (!affected[neighbour]) {
+				affected[neighbour] = true;
+				deletedNeighbours[neighbour]++;
+			}
+			level[neighbour] = Math.max(level[neighbour], level[contracted] + 1);
+		}
+
+		// freeze the edges every vertex had when it was contracted into upward/downward CSR
+		// arrays, core vertices keep all their edges to other core vertices in both
+		private ContractionHierarchy toHierarchy() {
+			int[] upOffsets = new int[numVertices + 1];
+			int[] downOffsets = new int[numVertices + 1];
+			int[] names = new int[numVertices];
+			for (int v = 0; v < numVertices; v++) {
+				upOffsets[v + 1] = upOffsets[v] + out[v].size;
+				downOffsets[v + 1] = downOffsets[v] + in[v].size;
+				names[v] = graph.getName(v);
+			}
+
+			int[] upTargets = new int[upOffsets[numVertices]];
+			int[] upWeights = new int[upTargets.length];
+			int[] upMiddle = new int[upTargets.length];
+			int[] downSources = new int[downOffsets[numVertices]];
+			int[] downWeights = new int[downSources.length];
+			int[] downMiddle = new int[downSources.length];
+			for (int v = 0; v < numVertices; v++) {
+				out[v].copyTo(upTargets, upWeights, upMiddle, upOffsets[v]);
+				in[v].copyTo(downSources, downWeights, downMiddle, downOffsets[v]);
+			}
+
+			return new ContractionHierarchy(bandwidth, names, rank, upOffsets, upTargets, upWeights, upMiddle,
+					downOffsets, downSources, downWeights, downMiddle);
+		}
+	}
+
+	// growable edge list of one vertex with at most one edge per neighbour
+	private static final class Adjacency {
+
+		private int[] vertices = new int[4];
+		private int[] weights = new int[4];
+		private int[] middle = new int[4];
+		private int size;
+
+		// add an edge or lower the weight of the existing edge to the vertex
+		private void putMin(int vertex, int weight, int middleVertex) {
+			for (int i = 0; i < size; i++) {
+				if (vertices[i] == vertex) {
+					if (weight < weights[i]) {
+						weights[i] = weight;
+						middle[i] = middleVertex;
+					}
+					return;
+				}
+			}
+			if (size == vertices.length) {
+				vertices = Arrays.copyOf(vertices, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+				middle = Arrays.copyOf(middle, size * 2);
+			}
+			vertices[size] = vertex;
+			weights[size] = weight;
+			middle[size] = middleVertex;
+			size++;
+		}
+
+		// remove the edge to a vertex by moving the last edge into its slot
+		private void remove(int vertex) {
+			for (int i = 0; i < size; i++) {
+				if (vertices[i] == vertex) {
+					size--;
+					vertices[i] = vertices[size];
+					weights[i] = weights[size];
+					middle[i] = middle[size];
+					return;
+				}
+			}
+		}
+
+		private void copyTo(int[] vertexOut, int[] weightOut, int[] middleOut, int position) {
+			System.arraycopy(vertices, 0, vertexOut, position, size);
+			System.arraycopy(weights, 0, weightOut, position, size);
+			System.arraycopy(middle, 0, middleOut, position, size);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package algorithm;
+
+import java.util.Arrays;
+
+// Point-to-point queries on a contraction hierarchy. The forward search from the
+// source only follows upward edges and the backward search from the target only
+// follows downward edges, so both stay in the small upper part of the hierarchy;
+// inside an uncontracted core both searches follow every core edge.
+// A vertex whose distance can be undercut through a higher neighbour is stalled and
+// not expanded. The path through the best meeting vertex is unpacked back into the
+// original vertices. Each thread uses its own pair of search states.
+public class ContractionHierarchyQuery {
+
+	private final ContractionHierarchy hierarchy;
+	private final ThreadLocal<SearchState[]> states;
+
+	public ContractionHierarchyQuery(ContractionHierarchy hierarchy) {
+		this.hierarchy = hierarchy;
+		this.states = ThreadLocal.withInitial(() -> new SearchState[] { new SearchState(hierarchy.vertexCount()),
+				new SearchState(hierarchy.vertexCount()) });
+	}
+
+	// get the hierarchy of the engine
+	public ContractionHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+	// compute the shortest path between two vertex names, the bandwidth must be the one
+	// the hierarchy was built for
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		if (bandwidth != hierarchy.getBandwidth()) {
+			throw new IllegalArgumentException(
+					"Hierarchy was built for bandwidth " + hierarchy.getBandwidth() + ", not " + bandwidth);
+		}
+		return shortestPath(sourceID, destinationID);
+	}
+
+	// compute the shortest path between two vertex names, empty if either name is not in
+	// the hierarchy; a vertex reaches itself with the one-vertex path
+	public PathResult shortestPath(int sourceID, int destinationID) {
+		int source = hierarchy.indexOf(sourceID);
+		int destination = hierarchy.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		return shortestPathIndex(source, destination);
+	}
+
+	// compute the shortest path between two vertex indices
+	public PathResult shortestPathIndex(int sourceIndex, int destinationIndex) {
+
+		SearchState[] pair = states.get();
+		SearchState forward = pair[0];
+		SearchState backward = pair[1];
+		forward.reset();
+		backward.reset();
+
+		IndexedHeap forwardQueue = forward.getQueue();
+		IndexedHeap backwardQueue = backward.getQueue();
+		forward.update(sourceIndex, 0, -1);
+		forwardQueue.push(sourceIndex, 0);
+		backward.update(destinationIndex, 0, -1);
+		backwardQueue.push(destinationIndex, 0);
+
+		long best = Integer.MAX_VALUE;
+		int meeting = -1;
+		while (true) {
+			boolean forwardOpen = !forwardQueue.isEmpty() && forwardQueue.peekKey() < best;
+			boolean backwardOpen = !backwardQueue.isEmpty() && backwardQueue.peekKey() < best;
+			if (!forwardOpen && !backwardOpen) {
+				break; // neither side can improve the best meeting
+			}
+			boolean forwardStep = forwardOpen && (!backwardOpen || forwardQueue.peekKey() <= backwardQueue.peekKey());
+
+			SearchState state = forwardStep ? forward : backward;
+			SearchState other = forwardStep ? backward : forward;
+			int currentNode = state.getQueue().poll();
+			state.settled();
+			int currentDistance = state.getDistance(currentNode);
+
+			if (other.getDistance(currentNode) != Integer.MAX_VALUE
+					&& (long) currentDistance + other.getDistance(currentNode) < best) {
+				best = (long) currentDistance + other.getDistance(currentNode);
+				meeting = currentNode;
+			}
+
+			if (forwardStep) {
+				if (!isStalled(forward, currentNode, hierarchy.downOffsets, hierarchy.downSources,
+						hierarchy.downWeights)) {
+					relax(forward, currentNode, hierarchy.upOffsets, hierarchy.upTargets, hierarchy.upWeights);
+				}
+			} else if (!isStalled(backward, currentNode, hierarchy.upOffsets, hierarchy.upTargets,
+					hierarchy.upWeights)) {
+				relax(backward, currentNode, hierarchy.downOffsets, hierarchy.downSources, hierarchy.downWeights);
+			}
+		}
+
+		int settled = forward.getSettledCount() + backward.getSettledCount();
+		if (meeting == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE, settled);
+		}
+		return new PathResult(unpack(forward, backward, sourceIndex, meeting), (int) best, settled);
+	}
+
+	// relax the edges of one search direction
+	private static void relax(SearchState state, int currentNode, int[] offsets, int[] neighbours, int[] weights) {
+		int currentDistance = state.getDistance(currentNode);
+		IndexedHeap queue = state.getQueue();
+		for (int e = offsets[currentNode]; e < offsets[currentNode + 1]; e++) {
+			int targetNode = neighbours[e];
+			int weightToTarget = currentDistance + weights[e];
+			if (weightToTarget < state.getDistance(targetNode)) {
+				state.update(targetNode, weightToTarget, currentNode);
+				queue.push(targetNode, weightToTarget);
+			}
+		}
+	}
+
+	// check whether a higher vertex reached by the same search gives a shorter distance,
+	// the edges are those of the opposite direction at the vertex
+	private static boolean isStalled(SearchState state, int currentNode, int[] offsets, int[] neighbours,
+			int[] weights) {
+		int currentDistance = state.getDistance(currentNode);
+		for (int e = offsets[currentNode]; e < offsets[currentNode + 1]; e++) {
+			int higher = state.getDistance(neighbours[e]);
+			if (higher != Integer.MAX_VALUE && higher + weights[e] < currentDistance) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// expand the hierarchy path source .. meeting .. destination into vertex names
+	private int[] unpack(SearchState forward, SearchState backward, int sourceIndex, int meeting) {
+
+		int forwardHops = 0; // hierarchy edges on both sides of the meeting vertex
+		for (int v = meeting; v != sourceIndex; v = forward.getPrevious(v)) {
+			forwardHops++;
+		}
+		int backwardHops = 0;
+		for (int v = backward.getPrevious(meeting); v != -1; v = backward.getPrevious(v)) {
+			backwardHops++;
+		}
+
+		int[] chain = new int[forwardHops + backwardHops + 1]; // hierarchy vertices of the path
+		int position = forwardHops;
+		for (int v = meeting; v != -1; v = forward.getPrevious(v)) {
+			chain[position--] = v;
+		}
+		position = forwardHops;
+		for (int v = backward.getPrevious(meeting); v != -1; v = backward.getPrevious(v)) {
+			chain[++position] = v;
+		}
+
+		int[] path = new int[Math.max(16, chain.length)];
+		int length = 0;
+		path[length++] = hierarchy.getName(chain[0]);
+		int[] stack = new int[32]; // pending hierarchy edges as (from, to) pairs
+		for (int i = 1; i < chain.length; i++) {
+			int top = 0;
+			stack[top++] = chain[i - 1];
+			stack[top++] = chain[i];
+			while (top > 0) {
+				int to = stack[--top];
+				int from = stack[--top];
+				int middle = hierarchy.middleOf(from, to);
+				if (middle == -1) { // an original edge
+					if (length == path.length) {
+						path = Arrays.copyOf(path, length * 2);
+					}
+					path[length++] = hierarchy.getName(to);
+					continue;
+				}
+				if (top + 4 > stack.length) {
+					stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				stack[top++] = middle; // the second half is expanded after the first
+				stack[top++] = to;
+				stack[top++] = from;
+				stack[top++] = middle;
+			}
+		}
+		return Arrays.copyOf(path, length);
+	}
+}
@@ -0,0 +1,298 @@
+package algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.CSRGraph;
+
+// Parallel delta-stepping single-source search on a CSR snapshot. Vertices are kept
+// in buckets of width delta by tentative distance. The lightest non-empty bucket is
+// drained in phases that relax its light edges (weight <= delta) in parallel until
+// it stays empty, then the heavy edges of all vertices settled from it are relaxed
+// in parallel once.
+//
+// The distance and predecessor of a vertex are packed into one long and lowered
+// with compare-and-set, so the distances are exactly those of Dijkstra. On ties the
+// predecessor may differ from Dijkstra's but always lies on a shortest path. Edge
+// weights must not be negative.
+public class DeltaStepping {
+
+	private static final int SEQUENTIAL_THRESHOLD = 256; // frontier vertices per task
+	private static final long UNREACHED = pack(Integer.MAX_VALUE, -1);
+
+	private final CSRGraph graph;
+	private final ForkJoinPool pool;
+	private final int delta;
+	private final int maxWeight;
+
+	// create the engine on the common pool with the mean edge weight as delta
+	public DeltaStepping(CSRGraph graph) {
+		this(graph, ForkJoinPool.commonPool(), defaultDelta(graph));
+	}
+
+	// create the engine on the given pool and bucket width
+	public DeltaStepping(CSRGraph graph, ForkJoinPool pool, int delta) {
+		if (delta < 1) {
+			throw new IllegalArgumentException("Delta must be positive: " + delta);
+		}
+		this.graph = graph;
+		this.pool = pool;
+		this.delta = delta;
+		int max = 0;
+		for (int weight : graph.weights) {
+			max = Math.max(max, weight);
+		}
+		this.maxWeight = max;
+	}
+
+	// get the mean edge weight of a graph, at least 1
+	public static int defaultDelta(CSRGraph graph) {
+		long sum = 0;
+		for (int weight : graph.weights) {
+			sum += weight;
+		}
+		return (int) Math.max(1, sum / Math.max(1, graph.edgeCount()));
+	}
+
+	// get the graph of the engine
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the bucket width
+	public int getDelta() {
+		return delta;
+	}
+
+	// compute the shortest path between two vertex names, empty if either name is not in the graph
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		int[] distance = new int[graph.vertexCount()];
+		int[] previous = new int[graph.vertexCount()];
+		computePaths(source, bandwidth, distance, previous);
+
+		if (distance[destination] == Integer.MAX_VALUE) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		int length = 0;
+		for (int vertex = destination; vertex != -1; vertex = previous[vertex]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int vertex = destination; vertex != -1; vertex = previous[vertex]) {
+			path[--length] = graph.getName(vertex);
+		}
+		return new PathResult(path, distance[destination]);
+	}
+
+	// compute all paths from the source index into full-size distance/previous arrays
+	public void computePaths(int sourceIndex, int bandwidth, int[] distance, int[] previous) {
+		Query query = new Query(bandwidth);
+		query.run(sourceIndex);
+		for (int v = 0; v < distance.length; v++) {
+			long label = query.labels.get(v);
+			distance[v] = distanceOf(label);
+			previous[v] = (int) label;
+		}
+	}
+
+	private static long pack(int distance, int previous) {
+		return ((long) distance << 32) | (previous & 0xFFFFFFFFL);
+	}
+
+	private static int distanceOf(long label) {
+		return (int) (label >>> 32);
+	}
+
+	// state of one search
+	private final class Query {
+
+		private final int bandwidth;
+		private final AtomicLongArray labels; // packed distance and predecessor of every vertex
+		private final IntList[] buckets; // cyclic, pending distances span at most maxWeight + delta
+		private final int[] frontierMark; // last phase that put a vertex into the frontier
+		private final int[] settledMark; // last bucket that settled a vertex, plus one
+		private final AtomicIntegerArray changedMark; // last relaxation round that lowered a vertex
+		private final int[] changed; // vertices lowered in the current round
+		private final AtomicInteger changedCount;
+		private final IntList frontier;
+		private final IntList settled;
+		private int round;
+		private long pending; // entries in all buckets
+
+		private Query(int bandwidth) {
+			int numVertices = graph.vertexCount();
+			this.bandwidth = bandwidth;
+			this.labels = new AtomicLongArray(numVertices);
+			this.buckets = new IntList[maxWeight / delta + 2];
+			this.frontierMark = new int[numVertices];
+			this.settledMark = new int[numVertices];
+			this.changedMark = new AtomicIntegerArray(numVertices);
+			this.changed = new int[numVertices];
+			this.changedCount = new AtomicInteger();
+			this.frontier = new IntList();
+			this.settled = new IntList();
+			for (int v = 0; v < numVertices; v++) {
+				labels.set(v, UNREACHED);
+			}
+			for (int b = 0; b < buckets.length; b++) {
+				buckets[b] = new IntList();
+			}
+		}
+
+		private void run(int sourceIndex) {
+			labels.set(sourceIndex, pack(0, -1));
+			buckets[0].add(sourceIndex);
+			pending = 1;
+
+			int phase = 0;
+			for (int current = 0; pending > 0; current++) {
+				IntList bucket = buckets[current % buckets.length];
+				settled.clear();
+
+				while (bucket.size() > 0) { // light phases until the bucket stays empty
+					phase++;
+					frontier.clear();
+					for (int i = 0; i < bucket.size(); i++) {
+						int v = bucket.get(i);
+						if (distanceOf(labels.get(v)) / delta == current && frontierMark[v] != phase) {
+							frontierMark[v] = phase; // skip stale and repeated entries
+							frontier.add(v);
+							if (settledMark[v] != current + 1) {
+								settledMark[v] = current + 1;
+								settled.add(v);
+							}
+						}
+					}
+					pending -= bucket.size();
+					bucket.clear();
+					relax(frontier, true);
+				}
+				relax(settled, false);
+			}
+		}
+
+		// relax the light or heavy edges of the vertices and queue the lowered targets
+		private void relax(IntList vertices, boolean light) {
+			if (vertices.size() == 0) {
+				return;
+			}
+			round++;
+			changedCount.set(0);
+			RelaxTask task = new RelaxTask(this, vertices.array(), 0, vertices.size(), light);
+			if (vertices.size() <= SEQUENTIAL_THRESHOLD) {
+				task.relaxRange();
+			} else {
+				pool.invoke(task);
+			}
+
+			for (int i = 0, count = changedCount.get(); i < count; i++) {
+				int v = changed[i];
+				buckets[(distanceOf(labels.get(v)) / delta) % buckets.length].add(v);
+			}
+			pending += changedCount.get();
+		}
+
+		// lower the distance of a target if the path through the source is shorter
+		private void relaxEdge(int source, int target, int distance) {
+			for (;;) {
+				long label = labels.get(target);
+				if (distance >= distanceOf(label)) {
+					return;
+				}
+				if (labels.compareAndSet(target, label, pack(distance, source))) {
+					if (changedMark.getAndSet(target, round) != round) {
+						changed[changedCount.getAndIncrement()] = target;
+					}
+					return;
+				}
+			}
+		}
+	}
+
+	// relaxation of a range of vertices, split in halves until the range is small
+	private final class RelaxTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final Query query;
+		private final int[] vertices;
+		private final int low;
+		private final int high;
+		private final boolean light;
+
+		private RelaxTask(Query query, int[] vertices, int low, int high, boolean light) {
+			this.query = query;
+			this.vertices = vertices;
+			this.low = low;
+			this.high = high;
+			this.light = light;
+		}
+
+		@Override
+		protected void compute() {
+			if (high - low <= SEQUENTIAL_THRESHOLD) {
+				relaxRange();
+				return;
+			}
+			int middle = (low + high) >>> 1;
+			invokeAll(new RelaxTask(query, vertices, low, middle, light),
+					new RelaxTask(query, vertices, middle, high, light));
+		}
+
+		private void relaxRange() {
+			int[] offsets = graph.offsets;
+			int[] targets = graph.targets;
+			int[] weights = graph.weights;
+			int[] bandwidths = graph.bandwidths;
+
+			for (int i = low; i < high; i++) {
+				int v = vertices[i];
+				int distance = distanceOf(query.labels.get(v));
+				int end = offsets[v + 1];
+				for (int e = offsets[v]; e < end && bandwidths[e] >= query.bandwidth; e++) {
+					if ((weights[e] <= delta) == light) {
+						query.relaxEdge(v, targets[e], distance + weights[e]);
+					}
+				}
+			}
+		}
+	}
+
+	// growable list of ints
+	private static final class IntList {
+
+		private int[] values = new int[16];
+		private int size;
+
+		private void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		private int get(int index) {
+			return values[index];
+		}
+
+		private int size() {
+			return size;
+		}
+
+		private int[] array() {
+			return values;
+		}
+
+		private void clear() {
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package algorithm;
+
+import graph.CSRGraph;
+
+// Dijkstra engine on a CSR snapshot. The queue is an indexed d-ary heap keyed by
+// the tentative distance, so every improvement is a real decrease-key. The engine
+// never writes into the graph: each thread searches with its own SearchState, so
+// one engine can serve concurrent queries.
+public class Dijkstra {
+
+	private final CSRGraph graph;
+	private final int arity;
+	private final ThreadLocal<SearchState> states;
+
+	// create the engine with a 4-ary heap
+	public Dijkstra(CSRGraph graph) {
+		this(graph, 4);
+	}
+
+	// create the engine with the given heap arity
+	public Dijkstra(CSRGraph graph, int arity) {
+		this.graph = graph;
+		this.arity = arity;
+		this.states = ThreadLocal.withInitial(() -> new SearchState(graph.vertexCount(), arity));
+	}
+
+	// get the graph of the engine
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the search state of the calling thread, cleared from its last query
+	public SearchState acquireState() {
+		SearchState state = states.get();
+		state.reset();
+		return state;
+	}
+
+	// compute all paths from the source index, valid until the thread's next query
+	public SearchState search(int sourceIndex, int bandwidth) {
+		SearchState state = acquireState();
+		search(state, sourceIndex, bandwidth);
+		return state;
+	}
+
+	// compute the paths from the source index until the target index is settled, valid
+	// for the target and every vertex settled before it until the thread's next query
+	public SearchState search(int sourceIndex, int bandwidth, int targetIndex) {
+		SearchState state = acquireState();
+		search(state, sourceIndex, bandwidth, targetIndex);
+		return state;
+	}
+
+	// compute the shortest path between two vertex names, stopping at the destination,
+	// empty if either name is not in the graph
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE, 0);
+		}
+		SearchState state = search(source, bandwidth, destination);
+		return new PathResult(state.pathTo(graph, destination), state.getDistance(destination),
+				state.getSettledCount());
+	}
+
+	// compute all paths from the source index into full-size distance/previous arrays
+	public void computePaths(int sourceIndex, int bandwidth, int[] distance, int[] previous) {
+		search(sourceIndex, bandwidth).copyTo(distance, previous);
+	}
+
+	// compute all paths from the source index over edges with enough bandwidth
+	public void search(SearchState state, int sourceIndex, int bandwidth) {
+		search(state, sourceIndex, bandwidth, -1);
+	}
+
+	// compute the paths from the source index until the target index is settled, -1 for all
+	public void search(SearchState state, int sourceIndex, int bandwidth, int targetIndex) {
+
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int[] weights = graph.weights;
+		int[] bandwidths = graph.bandwidths;
+
+		IndexedHeap vertexQueue = state.getQueue();
+		state.update(sourceIndex, 0, -1); // initialize minimum distance
+		vertexQueue.push(sourceIndex, 0);
+
+		while (!vertexQueue.isEmpty()) { // check all connections
+
+			int currentNode = vertexQueue.poll();
+			int currentDistance = state.getDistance(currentNode);
+			state.settled();
+			if (currentNode == targetIndex) {
+				break; // the distance of the target is final
+			}
+
+			// check the connected edges with enough bandwidth, rows are sorted by bandwidth
+			int end = offsets[currentNode + 1];
+			for (int e = offsets[currentNode]; e < end && bandwidths[e] >= bandwidth; e++) {
+
+				int targetNode = targets[e];
+				int weightToCurrentNode = currentDistance + weights[e];
+
+				if (weightToCurrentNode < state.getDistance(targetNode)) {
+					state.update(targetNode, weightToCurrentNode, currentNode);
+					vertexQueue.push(targetNode, weightToCurrentNode); // insert or decrease-key
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,353 @@
+package algorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import graph.CSRGraph;
+
+// All-pairs distance oracle. The distance and predecessor matrices of a bandwidth
+// threshold are computed once with the blocked Floyd-Warshall and kept in memory,
+// or in a memory-mapped file when a spill directory is given. Distances are answered
+// in O(1) and paths in O(path length).
+//
+// A change of one edge repairs the cached matrices instead of rebuilding them: a
+// cheaper edge is folded in with one O(V^2) pass, a more expensive or removed edge
+// only recomputes the rows whose shortest-path tree used it. Repairs assume edge
+// weights are not negative.
+public class DistanceOracle {
+
+	private static final int MAX_CHUNK_INTS = 1 << 28; // 1 GB per mapped chunk
+
+	private final File spillDirectory;
+	private final Map<Integer, Matrices> byBandwidth;
+	private final ConcurrentHashMap<Integer, CompletableFuture<Matrices>> pendingComputations;
+	private final ReadWriteLock lock;
+	private CSRGraph graph;
+
+	// create an oracle that keeps the matrices on the heap
+	public DistanceOracle(CSRGraph graph) {
+		this(graph, null);
+	}
+
+	// create an oracle that spills the matrices to memory-mapped files in a directory
+	public DistanceOracle(CSRGraph graph, File spillDirectory) {
+		this.spillDirectory = spillDirectory;
+		this.byBandwidth = new ConcurrentHashMap<Integer, Matrices>();
+		this.pendingComputations = new ConcurrentHashMap<Integer, CompletableFuture<Matrices>>();
+		this.lock = new ReentrantReadWriteLock();
+		this.graph = graph;
+	}
+
+	// get the current graph, including all edge updates
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the distance between two vertex names, Integer.MAX_VALUE if unreachable or unknown
+	public int getDistance(int sourceID, int destinationID, int bandwidth) {
+		lock.readLock().lock();
+		try {
+			int source = graph.indexOf(sourceID);
+			int destination = graph.indexOf(destinationID);
+			if (source == -1 || destination == -1) {
+				return Integer.MAX_VALUE; // never compute the matrices for unknown names
+			}
+			if (source == destination) {
+				return 0; // the diagonal holds the shortest cycle
+			}
+			int d = matrices(bandwidth).getDistance(source, destination);
+			return d >= BlockedFloydWarshall.INF ? Integer.MAX_VALUE : d;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// get the vertex names of the path between two vertex names, empty if unreachable or unknown
+	public int[] getPath(int sourceID, int destinationID, int bandwidth) {
+		lock.readLock().lock();
+		try {
+			int source = graph.indexOf(sourceID);
+			int destination = graph.indexOf(destinationID);
+			if (source == -1 || destination == -1) {
+				return new int[0];
+			}
+			if (source == destination) {
+				return new int[] { sourceID };
+			}
+			return path(matrices(bandwidth), source, destination);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// answer a query with its path and distance, empty if either name is unknown
+	public PathResult query(int sourceID, int destinationID, int bandwidth) {
+		lock.readLock().lock();
+		try {
+			int source = graph.indexOf(sourceID);
+			int destination = graph.indexOf(destinationID);
+			if (source == -1 || destination == -1) {
+				return new PathResult(new int[0], Integer.MAX_VALUE);
+			}
+			if (source == destination) {
+				return new PathResult(new int[] { sourceID }, 0);
+			}
+			Matrices matrices = matrices(bandwidth);
+			int d = matrices.getDistance(source, destination);
+			return new PathResult(path(matrices, source, destination),
+					d >= BlockedFloydWarshall.INF ? Integer.MAX_VALUE : d);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// get the number of bandwidth thresholds with cached matrices
+	public int cachedThresholds() {
+		return byBandwidth.size();
+	}
+
+	// set the weight and bandwidth of an edge, adding it if missing, and repair all cached matrices
+	public void updateEdge(int sourceID, int targetID, int weight, int bandwidth) {
+		lock.writeLock().lock();
+		try {
+			int u = graph.indexOf(sourceID);
+			int v = graph.indexOf(targetID);
+			if (u == -1 || v == -1) {
+				throw new IllegalArgumentException("Unknown vertex: " + (u == -1 ? sourceID : targetID));
+			}
+			CSRGraph previous = graph;
+			graph = graph.withEdge(u, v, weight, bandwidth);
+
+			for (Map.Entry<Integer, Matrices> entry : byBandwidth.entrySet()) {
+				int threshold = entry.getKey();
+				int oldWeight = effectiveWeight(previous, u, v, threshold);
+				int newWeight = effectiveWeight(graph, u, v, threshold);
+				if (newWeight < oldWeight) {
+					foldInEdge(entry.getValue(), u, v, newWeight);
+				} else if (newWeight > oldWeight) {
+					recomputeRowsUsing(entry.getValue(), u, v, threshold);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// get or compute the matrices of a bandwidth threshold, concurrent misses on the
+	// same threshold wait for a single computation outside the map
+	private Matrices matrices(int bandwidth) {
+		Matrices matrices = byBandwidth.get(bandwidth);
+		if (matrices != null) {
+			return matrices;
+		}
+
+		CompletableFuture<Matrices> computation = new CompletableFuture<Matrices>();
+		CompletableFuture<Matrices> pending = pendingComputations.putIfAbsent(bandwidth, computation);
+		if (pending != null) {
+			return await(pending);
+		}
+		try {
+			matrices = byBandwidth.get(bandwidth); // stored after the miss above
+			if (matrices == null) {
+				matrices = compute(bandwidth);
+				byBandwidth.put(bandwidth, matrices);
+			}
+			computation.complete(matrices);
+			return matrices;
+		} catch (RuntimeException ex) {
+			computation.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			pendingComputations.remove(bandwidth);
+		}
+	}
+
+	// compute the matrices of a bandwidth threshold with an engine of their own, so
+	// nothing keeps the heap arrays reachable once they are spilled
+	private Matrices compute(int bandwidth) {
+		BlockedFloydWarshall engine = new BlockedFloydWarshall();
+		engine.compute(graph, bandwidth);
+		return spillDirectory == null ? Matrices.onHeap(engine) : Matrices.mapped(engine, spillDirectory);
+	}
+
+	private static Matrices await(CompletableFuture<Matrices> computation) {
+		try {
+			return computation.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while computing distance matrices", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException("Error computing distance matrices", ex.getCause());
+		}
+	}
+
+	// reconstruct the path between two indices by walking the predecessors back
+	private int[] path(Matrices matrices, int source, int destination) {
+		if (matrices.getDistance(source, destination) >= BlockedFloydWarshall.INF) {
+			return new int[0];
+		}
+		int length = 1;
+		for (int v = destination; v != source; v = matrices.getPredecessor(source, v)) {
+			length++;
+		}
+		int[] path = new int[length];
+		path[0] = graph.getName(source);
+		for (int v = destination; v != source; v = matrices.getPredecessor(source, v)) {
+			path[--length] = graph.getName(v);
+		}
+		return path;
+	}
+
+	// get the lightest weight from u to v over edges with enough bandwidth, INF if none
+	private static int effectiveWeight(CSRGraph graph, int u, int v, int bandwidth) {
+		int weight = BlockedFloydWarshall.INF;
+		int end = graph.eligibleEnd(u, bandwidth);
+		for (int e = graph.offsets[u]; e < end; e++) {
+			if (graph.targets[e] == v) {
+				weight = Math.min(weight, graph.weights[e]);
+			}
+		}
+		return weight;
+	}
+
+	// fold a cheaper edge u -> v into every pair in one pass
+	private static void foldInEdge(Matrices matrices, int u, int v, int weight) {
+		int n = matrices.numVertices;
+		for (int i = 0; i < n; i++) {
+			int diu = i == u ? 0 : matrices.getDistance(i, u); // the diagonal holds cycles, not 0
+			if (diu >= BlockedFloydWarshall.INF) {
+				continue;
+			}
+			int through = diu + weight;
+			for (int j = 0; j < n; j++) {
+				int dvj = j == v ? 0 : matrices.getDistance(v, j);
+				if (dvj >= BlockedFloydWarshall.INF) {
+					continue;
+				}
+				int candidate = through + dvj;
+				if (candidate < matrices.getDistance(i, j)) {
+					matrices.set(i, j, candidate, j == v ? u : matrices.getPredecessor(v, j));
+				}
+			}
+		}
+	}
+
+	// recompute the rows whose shortest-path tree contained the edge u -> v
+	private void recomputeRowsUsing(Matrices matrices, int u, int v, int threshold) {
+		int n = matrices.numVertices;
+		Dijkstra dijkstra = new Dijkstra(graph);
+		for (int i = 0; i < n; i++) {
+			if (matrices.getPredecessor(i, v) != u) {
+				continue; // the tree of row i does not use the edge
+			}
+			SearchState state = dijkstra.search(i, threshold);
+			for (int j = 0; j < n; j++) {
+				int d = state.getDistance(j);
+				matrices.set(i, j, d == Integer.MAX_VALUE ? BlockedFloydWarshall.INF : d, state.getPrevious(j));
+			}
+
+			// the diagonal holds the shortest cycle through i, as in Floyd-Warshall
+			int cycle = BlockedFloydWarshall.INF;
+			int cyclePredecessor = -1;
+			for (int x = 0; x < n; x++) {
+				int dx = state.getDistance(x);
+				if (dx == Integer.MAX_VALUE) {
+					continue;
+				}
+				int end = graph.eligibleEnd(x, threshold);
+				for (int e = graph.offsets[x]; e < end; e++) {
+					if (graph.targets[e] == i && dx + graph.weights[e] < cycle) {
+						cycle = dx + graph.weights[e];
+						cyclePredecessor = x;
+					}
+				}
+			}
+			matrices.set(i, i, cycle, cyclePredecessor);
+		}
+	}
+
+	// distance and predecessor matrices stored as row chunks of int buffers
+	private static final class Matrices {
+		private final int numVertices;
+		private final int rowsPerChunk;
+		private final IntBuffer[] distance;
+		private final IntBuffer[] predecessor;
+
+		private Matrices(int numVertices, int rowsPerChunk, IntBuffer[] distance, IntBuffer[] predecessor) {
+			this.numVertices = numVertices;
+			this.rowsPerChunk = rowsPerChunk;
+			this.distance = distance;
+			this.predecessor = predecessor;
+		}
+
+		// keep the arrays of the engine on the heap
+		private static Matrices onHeap(BlockedFloydWarshall engine) {
+			int n = engine.vertexCount();
+			return new Matrices(n, Math.max(n, 1), new IntBuffer[] { IntBuffer.wrap(engine.getDistanceMatrix()) },
+					new IntBuffer[] { IntBuffer.wrap(engine.getPredecessorMatrix()) });
+		}
+
+		// copy the arrays of the engine into a memory-mapped file
+		private static Matrices mapped(BlockedFloydWarshall engine, File directory) {
+			int n = engine.vertexCount();
+			int rowsPerChunk = Math.max(1, MAX_CHUNK_INTS / Math.max(n, 1));
+			int chunks = Math.max(1, (n + rowsPerChunk - 1) / rowsPerChunk);
+			IntBuffer[] distance = new IntBuffer[chunks];
+			IntBuffer[] predecessor = new IntBuffer[chunks];
+
+			try {
+				File file = File.createTempFile("oracle", ".bin", directory);
+				file.deleteOnExit();
+				try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+						StandardOpenOption.WRITE)) {
+					long position = 0;
+					for (int c = 0; c < chunks; c++) {
+						int rows = Math.min(rowsPerChunk, n - c * rowsPerChunk);
+						long bytes = 4L * rows * n;
+						distance[c] = map(channel, position, bytes);
+						predecessor[c] = map(channel, position + bytes, bytes);
+						distance[c].put(engine.getDistanceMatrix(), c * rowsPerChunk * n, rows * n);
+						predecessor[c].put(engine.getPredecessorMatrix(), c * rowsPerChunk * n, rows * n);
+						position += 2 * bytes;
+					}
+				}
+			} catch (IOException ex) {
+				throw new UncheckedIOException("Error spilling distance matrices", ex);
+			}
+			return new Matrices(n, rowsPerChunk, distance, predecessor);
+		}
+
+		private static IntBuffer map(FileChannel channel, long position, long bytes) throws IOException {
+			return channel.map(FileChannel.MapMode.READ_WRITE, position, bytes).order(ByteOrder.nativeOrder())
+					.asIntBuffer();
+		}
+
+		private int getDistance(int i, int j) {
+			return distance[i / rowsPerChunk].get((i % rowsPerChunk) * numVertices + j);
+		}
+
+		private int getPredecessor(int i, int j) {
+			return predecessor[i / rowsPerChunk].get((i % rowsPerChunk) * numVertices + j);
+		}
+
+		private void set(int i, int j, int d, int p) {
+			int slot = (i % rowsPerChunk) * numVertices + j;
+			distance[i / rowsPerChunk].put(slot, d);
+			predecessor[i / rowsPerChunk].put(slot, p);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.DynamicGraph;
+import graph.EdgeListener;
+
+// Shortest-path tree of one source and bandwidth threshold on a DynamicGraph that
+// is repaired instead of recomputed when an edge changes, in the style of
+// Ramalingam and Reps. A cheaper or newly eligible edge starts a Dijkstra from its
+// target that only visits vertices whose distance drops. A more expensive or no
+// longer eligible tree edge detaches the subtree below it; every vertex of the
+// subtree takes its best incoming edge from outside the subtree and a Dijkstra
+// restricted to the improvements settles the subtree again. Changes to non-tree
+// edges that get more expensive cost O(1).
+//
+// The tree does not lock; register it on the graph or use it through
+// DynamicShortestPaths, which repairs and queries under the graph's lock.
+public class DynamicShortestPathTree implements EdgeListener {
+
+	private final DynamicGraph graph;
+	private final int sourceIndex;
+	private final int bandwidth;
+	private final int[] distance; // Integer.MAX_VALUE if unreachable
+	private final int[] parentEdge; // tree edge into every vertex, -1 for the source and unreachable vertices
+	private final IndexedHeap queue;
+	private final boolean[] detached; // vertices of the subtree being repaired
+	private int[] subtree; // detached vertices in discovery order
+	private long repairedVertices; // vertices whose distance was recomputed by repairs
+	private long updates;
+
+	// compute the tree of a source index over edges with enough bandwidth
+	public DynamicShortestPathTree(DynamicGraph graph, int sourceIndex, int bandwidth) {
+		int n = graph.vertexCount();
+		this.graph = graph;
+		this.sourceIndex = sourceIndex;
+		this.bandwidth = bandwidth;
+		this.distance = new int[n];
+		this.parentEdge = new int[n];
+		this.queue = new IndexedHeap(n);
+		this.detached = new boolean[n];
+		this.subtree = new int[16];
+		recompute();
+	}
+
+	// compute the whole tree from scratch
+	public void recompute() {
+		Arrays.fill(distance, Integer.MAX_VALUE);
+		Arrays.fill(parentEdge, -1);
+		distance[sourceIndex] = 0;
+		queue.push(sourceIndex, 0);
+		propagate();
+	}
+
+	@Override
+	public void edgeChanged(DynamicGraph changed, int edge, int oldWeight, int oldBandwidth) {
+		updates++;
+		int u = graph.getSource(edge);
+		int v = graph.getTarget(edge);
+		long oldCost = oldBandwidth >= bandwidth ? oldWeight : Long.MAX_VALUE;
+		long newCost = graph.getBandwidth(edge) >= bandwidth ? graph.getWeight(edge) : Long.MAX_VALUE;
+
+		if (newCost < oldCost) { // the edge got cheaper or eligible
+			if (distance[u] != Integer.MAX_VALUE && distance[u] + newCost < distance[v]) {
+				distance[v] = (int) (distance[u] + newCost);
+				parentEdge[v] = edge;
+				queue.push(v, distance[v]);
+				propagate();
+			}
+		} else if (newCost > oldCost && parentEdge[v] == edge) { // a tree edge got worse
+			repairSubtree(v);
+		}
+	}
+
+	// detach the subtree below a vertex and reattach it through the best remaining edges
+	private void repairSubtree(int root) {
+
+		int size = 0;
+		subtree[size++] = root;
+		detached[root] = true;
+		for (int i = 0; i < size; i++) { // collect the subtree through the tree edges
+			int x = subtree[i];
+			for (int e = graph.firstEdge(x); e < graph.endEdge(x); e++) {
+				int t = graph.getTarget(e);
+				if (parentEdge[t] == e && !detached[t]) {
+					if (size == subtree.length) {
+						subtree = Arrays.copyOf(subtree, size * 2);
+					}
+					subtree[size++] = t;
+					detached[t] = true;
+				}
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			distance[subtree[i]] = Integer.MAX_VALUE;
+			parentEdge[subtree[i]] = -1;
+		}
+		for (int i = 0; i < size; i++) { // best incoming edge from the intact part of the tree
+			int a = subtree[i];
+			for (int p = graph.firstIncoming(a); p < graph.endIncoming(a); p++) {
+				int e = graph.incomingEdge(p);
+				int x = graph.getSource(e);
+				if (detached[x] || distance[x] == Integer.MAX_VALUE || graph.getBandwidth(e) < bandwidth) {
+					continue;
+				}
+				int candidate = distance[x] + graph.getWeight(e);
+				if (candidate < distance[a]) {
+					distance[a] = candidate;
+					parentEdge[a] = e;
+				}
+			}
+			if (distance[a] != Integer.MAX_VALUE) {
+				queue.push(a, distance[a]);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			detached[subtree[i]] = false;
+		}
+
+		repairedVertices += size;
+		propagate(); // vertices outside the subtree keep their distances
+	}
+
+	// Dijkstra from the queued vertices over edges with enough bandwidth
+	private void propagate() {
+		while (!queue.isEmpty()) {
+			int currentNode = queue.poll();
+			int currentDistance = distance[currentNode];
+			for (int e = graph.firstEdge(currentNode); e < graph.endEdge(currentNode); e++) {
+				if (graph.getBandwidth(e) < bandwidth) {
+					continue;
+				}
+				int targetNode = graph.getTarget(e);
+				int weightToTarget = currentDistance + graph.getWeight(e);
+				if (weightToTarget < distance[targetNode]) {
+					distance[targetNode] = weightToTarget;
+					parentEdge[targetNode] = e;
+					queue.push(targetNode, weightToTarget);
+				}
+			}
+		}
+	}
+
+	// get the source index of the tree
+	public int getSourceIndex() {
+		return sourceIndex;
+	}
+
+	// get the bandwidth threshold of the tree
+	public int getBandwidth() {
+		return bandwidth;
+	}
+
+	// get the distance of a vertex index, Integer.MAX_VALUE if unreachable
+	public int getDistance(int index) {
+		return distance[index];
+	}
+
+	// get the predecessor of a vertex index, -1 if none
+	public int getPrevious(int index) {
+		return parentEdge[index] == -1 ? -1 : graph.getSource(parentEdge[index]);
+	}
+
+	// get the path of vertex names to a vertex index and its distance
+	public PathResult query(int destinationIndex) {
+		if (distance[destinationIndex] == Integer.MAX_VALUE) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		int length = 0;
+		for (int vertex = destinationIndex; vertex != -1; vertex = getPrevious(vertex)) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int vertex = destinationIndex; vertex != -1; vertex = getPrevious(vertex)) {
+			path[--length] = graph.getName(vertex);
+		}
+		return new PathResult(path, distance[destinationIndex]);
+	}
+
+	// get the number of edge changes seen by the tree
+	public long getUpdateCount() {
+		return updates;
+	}
+
+	// get the number of vertices detached and reattached by repairs so far
+	public long getRepairedVertexCount() {
+		return repairedVertices;
+	}
+}
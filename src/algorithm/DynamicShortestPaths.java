@@ -0,0 +1,84 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.DynamicGraph;
+import graph.EdgeListener;
+
+// Shortest-path trees of the hottest (source, bandwidth) pairs of a DynamicGraph.
+// The trees are kept in an LRU map and repaired on every edge change instead of
+// being recomputed. Queries and repairs run under the lock of the graph, so a
+// query never sees a half repaired tree.
+public class DynamicShortestPaths implements EdgeListener {
+
+	private final DynamicGraph graph;
+	private final Map<Long, DynamicShortestPathTree> trees;
+
+	// keep at most maxTrees trees and register for the changes of the graph
+	public DynamicShortestPaths(DynamicGraph graph, int maxTrees) {
+		if (maxTrees < 1) {
+			throw new IllegalArgumentException("At least one tree is required: " + maxTrees);
+		}
+		this.graph = graph;
+		this.trees = new LinkedHashMap<Long, DynamicShortestPathTree>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, DynamicShortestPathTree> eldest) {
+				return size() > maxTrees;
+			}
+		};
+		graph.addListener(this);
+	}
+
+	// compute the shortest path between two vertex names from the tree of the source
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		synchronized (graph) {
+			int destination = graph.indexOf(destinationID);
+			if (destination == -1) {
+				throw new IllegalArgumentException("Unknown destination vertex: " + destinationID);
+			}
+			return getTree(sourceID, bandwidth).query(destination);
+		}
+	}
+
+	// get the tree of a source name and bandwidth, computing it on first use; only
+	// read it while holding the lock of the graph
+	public DynamicShortestPathTree getTree(int sourceID, int bandwidth) {
+		synchronized (graph) {
+			int source = graph.indexOf(sourceID);
+			if (source == -1) {
+				throw new IllegalArgumentException("Unknown source vertex: " + sourceID);
+			}
+			long key = ((long) source << 32) | (bandwidth & 0xFFFFFFFFL);
+			DynamicShortestPathTree tree = trees.get(key);
+			if (tree == null) {
+				tree = new DynamicShortestPathTree(graph, source, bandwidth);
+				trees.put(key, tree);
+			}
+			return tree;
+		}
+	}
+
+	// get the trees currently kept
+	public List<DynamicShortestPathTree> getTrees() {
+		synchronized (graph) {
+			return new ArrayList<DynamicShortestPathTree>(trees.values());
+		}
+	}
+
+	@Override
+	public void edgeChanged(DynamicGraph changed, int edge, int oldWeight, int oldBandwidth) {
+		for (DynamicShortestPathTree tree : trees.values()) { // the graph is locked by the update
+			tree.edgeChanged(changed, edge, oldWeight, oldBandwidth);
+		}
+	}
+
+	// stop repairing the trees
+	public void close() {
+		graph.removeListener(this);
+	}
+}
@@ -0,0 +1,75 @@
+package algorithm;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Accepted virtual network: the substrate vertex hosting every virtual vertex and
+// the reservation of every virtual link. Releasing it gives the CPU, RAM and
+// bandwidth back to the substrate exactly once.
+public final class Embedding {
+
+	private final VirtualNetworkEmbedding engine;
+	private final int[] virtualNames;
+	private final int[] hosts; // substrate index hosting virtualNames[i]
+	private final int[] cpu; // CPU demand of virtualNames[i]
+	private final int[] ram; // RAM demand of virtualNames[i]
+	private final List<Reservation> links;
+	private final AtomicBoolean released = new AtomicBoolean();
+
+	Embedding(VirtualNetworkEmbedding engine, int[] virtualNames, int[] hosts, int[] cpu, int[] ram,
+			List<Reservation> links) {
+		this.engine = engine;
+		this.virtualNames = virtualNames;
+		this.hosts = hosts;
+		this.cpu = cpu;
+		this.ram = ram;
+		this.links = Collections.unmodifiableList(links);
+	}
+
+	// get the number of virtual vertices
+	public int size() {
+		return virtualNames.length;
+	}
+
+	// get the name of the i-th virtual vertex
+	public int getVirtualName(int i) {
+		return virtualNames[i];
+	}
+
+	// get the name of the substrate vertex hosting the i-th virtual vertex
+	public int getHost(int i) {
+		return engine.getSubstrate().getName(hosts[i]);
+	}
+
+	// get the substrate path reserved for every virtual link
+	public List<Reservation> getLinks() {
+		return links;
+	}
+
+	// get the total weight of the substrate paths of all virtual links
+	public long getCost() {
+		long cost = 0;
+		for (Reservation link : links) {
+			cost += link.getDistance();
+		}
+		return cost;
+	}
+
+	// check whether the resources were given back
+	public boolean isReleased() {
+		return released.get();
+	}
+
+	// give the resources of all vertices and links back, later calls do nothing
+	public void release() {
+		if (released.compareAndSet(false, true)) {
+			for (Reservation link : links) {
+				link.release();
+			}
+			for (int i = 0; i < hosts.length; i++) {
+				engine.releaseHost(hosts[i], cpu[i], ram[i]);
+			}
+		}
+	}
+}
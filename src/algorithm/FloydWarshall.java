@@ -1,6 +1,7 @@
 // FloydWarshallAlgorithm
 package algorithm;
 
+import graph.CSRGraph;
 import graph.Edge;
 import graph.Vertex;
 
@@ -41,6 +42,36 @@ public class FloydWarshall extends ShortestPath {
         return path; // Return the shortest path
     }
 
+    // Find the shortest path on a CSR snapshot, returned as the list of vertex names,
+    // empty if either name is not in the graph
+    public int[] findShortestPath(CSRGraph graph, int sourceID, int destinationID, int bandwidth) {
+        int sourceIndex = graph.indexOf(sourceID);
+        int destinationIndex = graph.indexOf(destinationID);
+        if (sourceIndex == -1 || destinationIndex == -1) {
+            return new int[0]; // unknown names, skip the O(V^3) pass
+        }
+
+        initializeDistanceMatrix(graph, bandwidth);
+        performFloydWarshall(graph.vertexCount());
+
+        // If there exists a path from source to destination
+        if (distanceMatrix[sourceIndex][destinationIndex] == Integer.MAX_VALUE) {
+            return new int[0];
+        }
+
+        // Walk the intermediate vertices back from the destination to the source
+        int length = 1;
+        for (int v = destinationIndex; v != sourceIndex; v = intermediateVertices[sourceIndex][v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        path[0] = graph.getName(sourceIndex);
+        for (int v = destinationIndex; v != sourceIndex; v = intermediateVertices[sourceIndex][v]) {
+            path[--length] = graph.getName(v);
+        }
+        return path; // Return the shortest path
+    }
+
     // Initialize distanceMatrix and intermediateVertices based on the edges with sufficient bandwidth
     private void initializeDistanceMatrix(List<Vertex> vertices, int bandwidth) {
         int numVertices = vertices.size();
@@ -70,6 +101,24 @@ public class FloydWarshall extends ShortestPath {
         }
     }
 
+    // Initialize distanceMatrix and intermediateVertices from the edges of a CSR snapshot
+    private void initializeDistanceMatrix(CSRGraph graph, int bandwidth) {
+        int numVertices = graph.vertexCount();
+        distanceMatrix = new int[numVertices][numVertices];
+        intermediateVertices = new int[numVertices][numVertices];
+
+        for (int i = 0; i < numVertices; i++) {
+            java.util.Arrays.fill(distanceMatrix[i], Integer.MAX_VALUE);
+            java.util.Arrays.fill(intermediateVertices[i], -1);
+
+            int end = graph.eligibleEnd(i, bandwidth); // skip under-capacity links
+            for (int e = graph.offsets[i]; e < end; e++) {
+                distanceMatrix[i][graph.targets[e]] = graph.weights[e];
+                intermediateVertices[i][graph.targets[e]] = i;
+            }
+        }
+    }
+
     // Floyd-Warshall algorithm to find all-pairs shortest paths
     private void performFloydWarshall(int numVertices) {
         for (int k = 0; k < numVertices; k++) {
@@ -0,0 +1,140 @@
+package algorithm;
+
+import java.util.Arrays;
+
+// Indexed d-ary min-heap of vertex indices ordered by an int key. Every vertex
+// remembers its slot in the heap, so decrease-key is a sift-up instead of the
+// linear PriorityQueue.remove() scan.
+public final class IndexedHeap {
+
+	private final int arity;
+	private final int[] heap; // vertex index stored in every heap slot
+	private final int[] position; // heap slot of every vertex, -1 if not queued
+	private final int[] key; // key of every queued vertex
+	private int size;
+
+	// create a 4-ary heap for vertex indices 0 .. capacity - 1
+	public IndexedHeap(int capacity) {
+		this(capacity, 4);
+	}
+
+	// create a heap with the given number of children per node
+	public IndexedHeap(int capacity, int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+		}
+		this.arity = arity;
+		this.heap = new int[capacity];
+		this.position = new int[capacity];
+		this.key = new int[capacity];
+		Arrays.fill(position, -1);
+	}
+
+	// check whether the heap has no queued vertex
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// get the number of queued vertices
+	public int size() {
+		return size;
+	}
+
+	// check whether a vertex is queued
+	public boolean contains(int vertex) {
+		return position[vertex] != -1;
+	}
+
+	// get the key of a queued vertex
+	public int getKey(int vertex) {
+		return key[vertex];
+	}
+
+	// get the key of the minimum vertex without removing it
+	public int peekKey() {
+		return key[heap[0]];
+	}
+
+	// insert a vertex or lower its key, larger keys of queued vertices are ignored
+	public void push(int vertex, int newKey) {
+		int slot = position[vertex];
+		if (slot == -1) {
+			slot = size++;
+			heap[slot] = vertex;
+			position[vertex] = slot;
+		} else if (newKey >= key[vertex]) {
+			return;
+		}
+		key[vertex] = newKey;
+		siftUp(slot);
+	}
+
+	// remove and return the vertex with the minimum key
+	public int poll() {
+		int min = heap[0];
+		position[min] = -1;
+		size--;
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			position[last] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	// remove all queued vertices in O(size)
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			position[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	private void siftUp(int slot) {
+		int vertex = heap[slot];
+		int vertexKey = key[vertex];
+		while (slot > 0) {
+			int parentSlot = (slot - 1) / arity;
+			int parent = heap[parentSlot];
+			if (key[parent] <= vertexKey) {
+				break;
+			}
+			heap[slot] = parent; // move the parent down
+			position[parent] = slot;
+			slot = parentSlot;
+		}
+		heap[slot] = vertex;
+		position[vertex] = slot;
+	}
+
+	private void siftDown(int slot) {
+		int vertex = heap[slot];
+		int vertexKey = key[vertex];
+		while (true) {
+			int firstChild = slot * arity + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int lastChild = Math.min(firstChild + arity, size);
+			int minSlot = firstChild;
+			int minKey = key[heap[firstChild]];
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				int childKey = key[heap[child]];
+				if (childKey < minKey) {
+					minKey = childKey;
+					minSlot = child;
+				}
+			}
+			if (minKey >= vertexKey) {
+				break;
+			}
+			int child = heap[minSlot];
+			heap[slot] = child; // move the smallest child up
+			position[child] = slot;
+			slot = minSlot;
+		}
+		heap[slot] = vertex;
+		position[vertex] = slot;
+	}
+}
@@ -0,0 +1,199 @@
+package algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import graph.CSRGraph;
+
+// Johnson's all-pairs shortest paths for sparse graphs. One Bellman-Ford (SPFA)
+// search from a virtual vertex joined to every vertex by a zero-weight edge gives
+// the potentials h; the weights w(u, v) + h(u) - h(v) are non-negative, so every
+// source is then searched with Dijkstra on a work-stealing pool. O(V E log V)
+// instead of the O(V^3) of Floyd-Warshall, and negative weights are supported.
+//
+// The matrices have the layout of BlockedFloydWarshall: entry [i][j] of the
+// predecessor matrix is the vertex before j on the shortest path from i, -1 if
+// none, as in FloydWarshall.getIntermediateVertices(). The diagonal holds 0.
+public class Johnson {
+
+	private final ForkJoinPool pool;
+
+	private CSRGraph graph;
+	private int numVertices;
+	private int[] distance; // distance[i * n + j], BlockedFloydWarshall.INF if unreachable
+	private int[] predecessor; // predecessor[i * n + j], -1 if none
+	private int[] negativeCycle; // vertex names of a negative cycle, null if there is none
+
+	// create the engine on the common pool
+	public Johnson() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	// create the engine with the per-source searches running in the given pool
+	public Johnson(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	// find the shortest path between two vertex names over edges with enough bandwidth,
+	// empty if there is none, a name is unknown or the graph contains a negative cycle
+	// (see hasNegativeCycle())
+	public int[] findShortestPath(CSRGraph graph, int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1 || !compute(graph, bandwidth)) {
+			return new int[0]; // unknown names skip the all-pairs computation
+		}
+		return getPath(source, destination);
+	}
+
+	// compute all pairs of shortest paths over edges with enough bandwidth, false if
+	// the graph contains a negative cycle and no distances were computed
+	public boolean compute(CSRGraph graph, int bandwidth) {
+		int n = graph.vertexCount();
+		int entries = BlockedFloydWarshall.matrixEntries(n); // fail before any search
+		this.graph = graph;
+		this.numVertices = n;
+		this.distance = null;
+		this.predecessor = null;
+		this.negativeCycle = null;
+
+		BellmanFordResult potentials = new SPFA(withVirtualSource(graph)).searchIndex(n, bandwidth);
+		if (potentials.hasNegativeCycle()) {
+			negativeCycle = potentials.getNegativeCycle();
+			return false;
+		}
+
+		int[] h = new int[n];
+		for (int i = 0; i < n; i++) {
+			h[i] = potentials.getIndexDistance(i);
+		}
+		int[] reducedWeights = new int[graph.edgeCount()];
+		for (int u = 0; u < n; u++) {
+			for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+				reducedWeights[e] = graph.weights[e] + h[u] - h[graph.targets[e]];
+			}
+		}
+		int[] names = new int[n];
+		for (int i = 0; i < n; i++) {
+			names[i] = graph.getName(i);
+		}
+		Dijkstra dijkstra = new Dijkstra(new CSRGraph(graph.offsets, graph.targets, reducedWeights,
+				graph.bandwidths, graph.cpu, graph.ram, names));
+
+		int[] distance = new int[entries];
+		int[] predecessor = new int[entries];
+		pool.submit(() -> IntStream.range(0, n).parallel().forEach(source -> {
+			SearchState state = dijkstra.search(source, bandwidth);
+			int row = source * n;
+			for (int j = 0; j < n; j++) {
+				int d = state.getDistance(j);
+				if (d == Integer.MAX_VALUE) {
+					distance[row + j] = BlockedFloydWarshall.INF;
+					predecessor[row + j] = -1;
+				} else {
+					distance[row + j] = d - h[source] + h[j]; // undo the reweighting
+					predecessor[row + j] = state.getPrevious(j);
+				}
+			}
+		})).join();
+
+		this.distance = distance;
+		this.predecessor = predecessor;
+		return true;
+	}
+
+	// copy the graph with one more vertex that has a zero-weight edge to every vertex
+	private static CSRGraph withVirtualSource(CSRGraph graph) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+
+		int[] offsets = Arrays.copyOf(graph.offsets, n + 2);
+		offsets[n + 1] = m + n;
+		int[] targets = Arrays.copyOf(graph.targets, m + n);
+		int[] weights = Arrays.copyOf(graph.weights, m + n);
+		int[] bandwidths = Arrays.copyOf(graph.bandwidths, m + n);
+		int[] names = new int[n + 1];
+		int maxName = -1;
+		for (int i = 0; i < n; i++) {
+			targets[m + i] = i;
+			bandwidths[m + i] = Integer.MAX_VALUE; // eligible for every bandwidth
+			names[i] = graph.getName(i);
+			maxName = Math.max(maxName, names[i]);
+		}
+		names[n] = maxName + 1;
+
+		return new CSRGraph(offsets, targets, weights, bandwidths, Arrays.copyOf(graph.cpu, n + 1),
+				Arrays.copyOf(graph.ram, n + 1), names);
+	}
+
+	// get the graph of the last computation
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the number of vertices of the last computation
+	public int vertexCount() {
+		return numVertices;
+	}
+
+	// check whether the last computation stopped at a negative cycle
+	public boolean hasNegativeCycle() {
+		return negativeCycle != null;
+	}
+
+	// get the vertex names of the negative cycle in edge order, empty if there is none
+	public int[] getNegativeCycle() {
+		return negativeCycle == null ? new int[0] : negativeCycle.clone();
+	}
+
+	// get the distance between two indices, Integer.MAX_VALUE if unreachable
+	public int getDistance(int sourceIndex, int destinationIndex) {
+		int d = distance[sourceIndex * numVertices + destinationIndex];
+		return d >= BlockedFloydWarshall.INF ? Integer.MAX_VALUE : d;
+	}
+
+	// get the vertex before the destination on the path from the source, -1 if none
+	public int getIntermediate(int sourceIndex, int destinationIndex) {
+		return predecessor[sourceIndex * numVertices + destinationIndex];
+	}
+
+	// get the flat row-major distance matrix, unreachable pairs hold BlockedFloydWarshall.INF
+	public int[] getDistanceMatrix() {
+		return distance;
+	}
+
+	// get the flat row-major predecessor matrix
+	public int[] getPredecessorMatrix() {
+		return predecessor;
+	}
+
+	// copy the predecessors in the layout of FloydWarshall.getIntermediateVertices()
+	public int[][] getIntermediateVertices() {
+		int[][] intermediateVertices = new int[numVertices][];
+		for (int i = 0; i < numVertices; i++) {
+			intermediateVertices[i] = Arrays.copyOfRange(predecessor, i * numVertices, (i + 1) * numVertices);
+		}
+		return intermediateVertices;
+	}
+
+	// reconstruct the vertex names of the path between two indices, empty if unreachable
+	public int[] getPath(int sourceIndex, int destinationIndex) {
+		if (sourceIndex == -1 || destinationIndex == -1
+				|| distance[sourceIndex * numVertices + destinationIndex] >= BlockedFloydWarshall.INF) {
+			return new int[0];
+		}
+
+		int row = sourceIndex * numVertices;
+		int length = 1;
+		for (int v = destinationIndex; v != sourceIndex; v = predecessor[row + v]) {
+			length++;
+		}
+		int[] path = new int[length];
+		path[0] = graph.getName(sourceIndex);
+		for (int v = destinationIndex; v != sourceIndex; v = predecessor[row + v]) {
+			path[--length] = graph.getName(v);
+		}
+		return path;
+	}
+}
@@ -0,0 +1,297 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import graph.CSRGraph;
+
+// Loopless K shortest paths (Yen) over the edges with enough bandwidth, produced
+// lazily: the next path is only computed when it is asked for. The shortest-path
+// tree towards the destination is built once per generator and shared by all
+// deviations. A spur path that the tree already gives is taken from it without a
+// search; the others are searched with A* using the tree distances, which stay
+// admissible and consistent when vertices and edges are removed. The spur
+// searches of one path run in parallel. Parallel edges between two vertices count
+// as one link, the lightest one with enough bandwidth.
+public class KShortestPaths {
+
+	private final CSRGraph graph;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<SpurSearch> searches;
+
+	// create the generator factory with the spur searches running in the given pool
+	public KShortestPaths(CSRGraph graph, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+		this.searches = ThreadLocal.withInitial(() -> new SpurSearch(graph.vertexCount()));
+	}
+
+	public KShortestPaths(CSRGraph graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	// get the graph of the engine
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the paths between two vertex names in order of distance, one at a time
+	public Iterator<PathResult> paths(int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) {
+			throw new IllegalArgumentException("Unknown vertex: " + (source == -1 ? sourceID : destinationID));
+		}
+		return new PathIterator(source, destination, bandwidth);
+	}
+
+	// get at most k shortest paths between two vertex names
+	public List<PathResult> shortestPaths(int sourceID, int destinationID, int bandwidth, int k) {
+		List<PathResult> paths = new ArrayList<PathResult>(k);
+		Iterator<PathResult> iterator = paths(sourceID, destinationID, bandwidth);
+		while (paths.size() < k && iterator.hasNext()) {
+			paths.add(iterator.next());
+		}
+		return paths;
+	}
+
+	// path as vertex indices with the distance from the source to every vertex on it
+	private static final class Path implements Comparable<Path> {
+		final int[] vertices;
+		final int[] distances;
+
+		Path(int[] vertices, int[] distances) {
+			this.vertices = vertices;
+			this.distances = distances;
+		}
+
+		int distance() {
+			return distances[distances.length - 1];
+		}
+
+		@Override
+		public int compareTo(Path other) {
+			int distance = Integer.compare(distance(), other.distance());
+			return distance != 0 ? distance : Integer.compare(vertices.length, other.vertices.length);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Path && Arrays.equals(vertices, ((Path) other).vertices);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(vertices);
+		}
+	}
+
+	private final class PathIterator implements Iterator<PathResult> {
+
+		private final int source;
+		private final int destination;
+		private final int bandwidth;
+		private final int[] toDestination; // tree distance of every vertex to the destination
+		private final int[] nextHop; // tree successor of every vertex towards the destination
+
+		private final List<Path> found = new ArrayList<Path>();
+		private final PriorityQueue<Path> candidates = new PriorityQueue<Path>();
+		private final Set<Path> known = new HashSet<Path>();
+		private boolean deviated; // spurs of the last found path are in the candidates
+
+		PathIterator(int source, int destination, int bandwidth) {
+			this.source = source;
+			this.destination = destination;
+			this.bandwidth = bandwidth;
+
+			int n = graph.vertexCount();
+			this.toDestination = new int[n];
+			this.nextHop = new int[n];
+			new Dijkstra(graph.reverse()).computePaths(destination, bandwidth, toDestination, nextHop);
+
+			if (toDestination[source] != Integer.MAX_VALUE) {
+				Path shortest = treePath(source, new int[] { source }, new int[] { 0 }, 0);
+				candidates.add(shortest);
+				known.add(shortest);
+			}
+			deviated = true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (!deviated) {
+				deviate(found.get(found.size() - 1));
+				deviated = true;
+			}
+			return !candidates.isEmpty();
+		}
+
+		@Override
+		public PathResult next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Path path = candidates.poll();
+			found.add(path);
+			deviated = false;
+
+			int[] names = new int[path.vertices.length];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = graph.getName(path.vertices[i]);
+			}
+			return new PathResult(names, path.distance());
+		}
+
+		// add the spur paths leaving the last found path at each of its vertices
+		private void deviate(Path last) {
+			int spurs = last.vertices.length - 1;
+			Path[] spurPaths = pool.submit(() -> IntStream.range(0, spurs).parallel()
+					.mapToObj(i -> spurPath(last, i)).toArray(Path[]::new)).join();
+			for (Path path : spurPaths) {
+				if (path != null && known.add(path)) {
+					candidates.add(path);
+				}
+			}
+		}
+
+		// get the shortest path that follows the root of a path up to vertex i and then leaves it
+		private Path spurPath(Path root, int i) {
+			int spur = root.vertices[i];
+			SpurSearch search = searches.get();
+			int stamp = search.nextStamp();
+
+			for (int j = 0; j < i; j++) { // the path stays loopless
+				search.blocked[root.vertices[j]] = stamp;
+			}
+			int bannedCount = 0;
+			int[] banned = new int[found.size()]; // next vertices of found paths with the same root
+			for (Path path : found) {
+				if (path.vertices.length > i + 1 && sameRoot(path, root, i)) {
+					banned[bannedCount++] = path.vertices[i + 1];
+				}
+			}
+
+			// the tree path is the spur path when it avoids the root and the banned links
+			boolean treeUsable = toDestination[spur] != Integer.MAX_VALUE
+					&& !contains(banned, bannedCount, nextHop[spur]);
+			for (int v = spur; treeUsable && v != destination; v = nextHop[v]) {
+				treeUsable = search.blocked[nextHop[v]] != stamp;
+			}
+			if (treeUsable) {
+				return treePath(spur, root.vertices, root.distances, i);
+			}
+			return searchSpur(search, root, i, banned, bannedCount, stamp);
+		}
+
+		// join the root up to vertex i with the tree path from there
+		private Path treePath(int spur, int[] rootVertices, int[] rootDistances, int i) {
+			int length = i + 1;
+			for (int v = spur; v != destination; v = nextHop[v]) {
+				length++;
+			}
+			int[] vertices = Arrays.copyOf(rootVertices, length);
+			int[] distances = Arrays.copyOf(rootDistances, length);
+			int base = rootDistances[i] + toDestination[spur];
+			for (int v = spur, k = i; v != destination; ) {
+				v = nextHop[v];
+				vertices[++k] = v;
+				distances[k] = base - toDestination[v];
+			}
+			return new Path(vertices, distances);
+		}
+
+		private boolean sameRoot(Path path, Path root, int i) {
+			for (int j = 0; j <= i; j++) {
+				if (path.vertices[j] != root.vertices[j]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean contains(int[] values, int count, int value) {
+			for (int j = 0; j < count; j++) {
+				if (values[j] == value) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		// per-thread A* from a spur vertex to the destination
+		private Path searchSpur(SpurSearch search, Path root, int i, int[] banned, int bannedCount, int stamp) {
+			int spur = root.vertices[i];
+			int[] offsets = graph.offsets;
+			int[] targets = graph.targets;
+			int[] weights = graph.weights;
+			int[] bandwidths = graph.bandwidths;
+
+			SearchState state = search.state;
+			state.reset();
+			IndexedHeap vertexQueue = state.getQueue(); // keyed by distance plus tree distance
+			state.update(spur, 0, -1);
+			vertexQueue.push(spur, toDestination[spur]);
+
+			while (!vertexQueue.isEmpty()) {
+				int currentNode = vertexQueue.poll();
+				if (currentNode == destination) {
+					break; // consistent bounds make the first poll final
+				}
+				int currentDistance = state.getDistance(currentNode);
+
+				int end = offsets[currentNode + 1];
+				for (int e = offsets[currentNode]; e < end && bandwidths[e] >= bandwidth; e++) {
+					int targetNode = targets[e];
+					if (search.blocked[targetNode] == stamp || toDestination[targetNode] == Integer.MAX_VALUE
+							|| (currentNode == spur && contains(banned, bannedCount, targetNode))) {
+						continue;
+					}
+					int weightToTarget = currentDistance + weights[e];
+					if (weightToTarget < state.getDistance(targetNode)) {
+						state.update(targetNode, weightToTarget, currentNode);
+						vertexQueue.push(targetNode, weightToTarget + toDestination[targetNode]);
+					}
+				}
+			}
+
+			if (state.getDistance(destination) == Integer.MAX_VALUE) {
+				return null;
+			}
+			int length = i + 1;
+			for (int v = destination; v != spur; v = state.getPrevious(v)) {
+				length++;
+			}
+			int[] vertices = Arrays.copyOf(root.vertices, length);
+			int[] distances = Arrays.copyOf(root.distances, length);
+			for (int v = destination, k = length - 1; v != spur; v = state.getPrevious(v), k--) {
+				vertices[k] = v;
+				distances[k] = root.distances[i] + state.getDistance(v);
+			}
+			return new Path(vertices, distances);
+		}
+	}
+
+	// search state of one thread, the blocked marks are cleared by a new stamp
+	private static final class SpurSearch {
+		final SearchState state;
+		final int[] blocked;
+		private int stamp;
+
+		SpurSearch(int numVertices) {
+			this.state = new SearchState(numVertices);
+			this.blocked = new int[numVertices];
+		}
+
+		int nextStamp() {
+			return ++stamp;
+		}
+	}
+}
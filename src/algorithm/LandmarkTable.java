@@ -0,0 +1,134 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Distances from and to a set of landmark vertices over the edges of one bandwidth
+// tier, stored vertex-major in primitive arrays so the bounds of a vertex are read
+// from one cache line. By the triangle inequality, d(L, t) - d(L, v) and
+// d(v, L) - d(t, L) are lower bounds on d(v, t) for every query whose bandwidth is
+// at least the tier, because such a query only uses a subset of the tier's edges.
+public final class LandmarkTable {
+
+	private final int bandwidth;
+	private final int count;
+	private final int[] landmarks; // vertex index of every landmark
+	private final int[] fromLandmark; // [v * count + l] = d(landmark l, v), Integer.MAX_VALUE if unreachable
+	private final int[] toLandmark; // [v * count + l] = d(v, landmark l), Integer.MAX_VALUE if unreachable
+
+	private LandmarkTable(int bandwidth, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+		this.bandwidth = bandwidth;
+		this.count = landmarks.length;
+		this.landmarks = landmarks;
+		this.fromLandmark = fromLandmark;
+		this.toLandmark = toLandmark;
+	}
+
+	// select landmarks by farthest insertion and compute their distance tables
+	public static LandmarkTable build(CSRGraph graph, int count, int bandwidth) {
+
+		int numVertices = graph.vertexCount();
+		if (numVertices == 0) { // no vertex to start the landmark search from
+			return new LandmarkTable(bandwidth, new int[0], new int[0], new int[0]);
+		}
+		count = Math.min(count, numVertices);
+		Dijkstra forward = new Dijkstra(graph);
+		Dijkstra backward = new Dijkstra(graph.reverse());
+
+		int[] landmarks = new int[count];
+		int[] fromLandmark = new int[numVertices * count];
+		int[] toLandmark = new int[numVertices * count];
+		int[] nearest = new int[numVertices]; // distance from the closest chosen landmark
+		Arrays.fill(nearest, Integer.MAX_VALUE);
+
+		// start with the vertex farthest from vertex 0
+		int next = farthest(forward.search(0, bandwidth), nearest, null, 0);
+		for (int l = 0; l < count; l++) {
+			landmarks[l] = next;
+
+			SearchState state = forward.search(next, bandwidth);
+			for (int v = 0; v < numVertices; v++) {
+				int d = state.getDistance(v);
+				fromLandmark[v * count + l] = d;
+				nearest[v] = Math.min(nearest[v], d);
+			}
+			state = backward.search(next, bandwidth);
+			for (int v = 0; v < numVertices; v++) {
+				toLandmark[v * count + l] = state.getDistance(v);
+			}
+
+			// the next landmark is the vertex farthest from all chosen ones, unreached first
+			next = farthest(null, nearest, landmarks, l + 1);
+		}
+		return new LandmarkTable(bandwidth, landmarks, fromLandmark, toLandmark);
+	}
+
+	// pick the vertex with the largest distance, from a search or from the nearest landmarks
+	private static int farthest(SearchState state, int[] nearest, int[] chosen, int chosenCount) {
+		int best = 0;
+		long bestDistance = -1;
+		for (int v = 0; v < nearest.length; v++) {
+			long d = state != null ? state.getDistance(v) : nearest[v];
+			if (state != null && d == Integer.MAX_VALUE) {
+				continue; // the first landmark must be reachable from the start
+			}
+			if (d > bestDistance && !contains(chosen, chosenCount, v)) {
+				bestDistance = d;
+				best = v;
+			}
+		}
+		return best;
+	}
+
+	private static boolean contains(int[] values, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// get the bandwidth tier of the table
+	public int getBandwidth() {
+		return bandwidth;
+	}
+
+	// get the number of landmarks
+	public int getLandmarkCount() {
+		return count;
+	}
+
+	// get the vertex index of a landmark
+	public int getLandmark(int l) {
+		return landmarks[l];
+	}
+
+	// get a lower bound on the distance between two vertex indices, Integer.MAX_VALUE if
+	// the tables prove that the target cannot be reached
+	public int lowerBound(int vertex, int target) {
+		int bound = 0;
+		int v = vertex * count;
+		int t = target * count;
+		for (int l = 0; l < count; l++) {
+			int landmarkToVertex = fromLandmark[v + l];
+			if (landmarkToVertex != Integer.MAX_VALUE) { // d(L, t) <= d(L, v) + d(v, t)
+				int landmarkToTarget = fromLandmark[t + l];
+				if (landmarkToTarget == Integer.MAX_VALUE) {
+					return Integer.MAX_VALUE;
+				}
+				bound = Math.max(bound, landmarkToTarget - landmarkToVertex);
+			}
+			int targetToLandmark = toLandmark[t + l];
+			if (targetToLandmark != Integer.MAX_VALUE) { // d(v, L) <= d(v, t) + d(t, L)
+				int vertexToLandmark = toLandmark[v + l];
+				if (vertexToLandmark == Integer.MAX_VALUE) {
+					return Integer.MAX_VALUE;
+				}
+				bound = Math.max(bound, vertexToLandmark - targetToLandmark);
+			}
+		}
+		return bound;
+	}
+}
@@ -0,0 +1,68 @@
+package algorithm;
+
+// Min-plus row update of the all-pairs engines: row i of the distance matrix is
+// relaxed through pivot row k, and improved entries take the predecessor of row k.
+// Unreachable entries hold BlockedFloydWarshall.INF, which leaves room for adding
+// any edge weight without overflow, so no per-entry overflow guard is needed.
+public abstract class MinPlusKernel {
+
+	private static final String VECTOR_KERNEL = "algorithm.VectorMinPlusKernel";
+
+	private static final MinPlusKernel SCALAR = new ScalarKernel();
+
+	// relax distance[rowI + j] through distance[rowK + j] for jStart <= j < jEnd
+	public abstract void relaxRow(int[] distance, int[] predecessor, int rowI, int rowK, int jStart, int jEnd,
+			int dik);
+
+	// get the name of the kernel
+	public abstract String getName();
+
+	// get the scalar kernel
+	public static MinPlusKernel scalar() {
+		return SCALAR;
+	}
+
+	// get the jdk.incubator.vector kernel, null when the module is not available
+	public static MinPlusKernel vector() {
+		try {
+			return (MinPlusKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError ex) {
+			return null; // not compiled in or started without --add-modules jdk.incubator.vector
+		}
+	}
+
+	// get the vector kernel when available, unless -Dshortestpath.vector=false
+	public static MinPlusKernel preferred() {
+		if (!Boolean.parseBoolean(System.getProperty("shortestpath.vector", "true"))) {
+			return SCALAR;
+		}
+		MinPlusKernel vector = vector();
+		return vector != null ? vector : SCALAR;
+	}
+
+	// get the name of the kernel
+	public String toString() {
+		return getName();
+	}
+
+	// branch-light scalar kernel, written as selects so the JIT can use conditional moves
+	private static final class ScalarKernel extends MinPlusKernel {
+
+		@Override
+		public void relaxRow(int[] distance, int[] predecessor, int rowI, int rowK, int jStart, int jEnd, int dik) {
+			for (int j = jStart; j < jEnd; j++) {
+				int dkj = distance[rowK + j];
+				int dij = distance[rowI + j];
+				int candidate = dik + dkj;
+				boolean better = dkj < BlockedFloydWarshall.INF & candidate < dij;
+				distance[rowI + j] = better ? candidate : dij;
+				predecessor[rowI + j] = better ? predecessor[rowK + j] : predecessor[rowI + j];
+			}
+		}
+
+		@Override
+		public String getName() {
+			return "scalar";
+		}
+	}
+}
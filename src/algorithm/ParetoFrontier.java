@@ -0,0 +1,104 @@
+package algorithm;
+
+import graph.CSRGraph;
+
+// Pareto frontier of (path cost, bottleneck bandwidth) for every destination of one
+// source. The labels of a destination are ordered by increasing cost and increasing
+// bottleneck, so the cheapest path for a bandwidth demand is the first label whose
+// bottleneck reaches the demand.
+public final class ParetoFrontier {
+
+	private final CSRGraph graph;
+	private final int sourceIndex;
+	private final int[] frontierOffsets; // labels of vertex i are at frontierOffsets[i] .. frontierOffsets[i + 1] - 1
+	private final int[] frontierLabels; // label id of every frontier entry
+	private final int[] labelCost;
+	private final int[] labelBottleneck;
+	private final int[] labelNode;
+	private final int[] labelParent; // label the path came from, -1 at the source
+
+	ParetoFrontier(CSRGraph graph, int sourceIndex, int[] frontierOffsets, int[] frontierLabels, int[] labelCost,
+			int[] labelBottleneck, int[] labelNode, int[] labelParent) {
+		this.graph = graph;
+		this.sourceIndex = sourceIndex;
+		this.frontierOffsets = frontierOffsets;
+		this.frontierLabels = frontierLabels;
+		this.labelCost = labelCost;
+		this.labelBottleneck = labelBottleneck;
+		this.labelNode = labelNode;
+		this.labelParent = labelParent;
+	}
+
+	// get the source index of the search, -1 if the source name was unknown
+	public int getSourceIndex() {
+		return sourceIndex;
+	}
+
+	// get the number of Pareto-optimal labels of a vertex
+	public int size(int vertexIndex) {
+		return frontierOffsets[vertexIndex + 1] - frontierOffsets[vertexIndex];
+	}
+
+	// get the total number of labels over all vertices
+	public int totalSize() {
+		return frontierLabels.length;
+	}
+
+	// get the path cost of the k-th label of a vertex
+	public int getCost(int vertexIndex, int k) {
+		return labelCost[frontierLabels[frontierOffsets[vertexIndex] + k]];
+	}
+
+	// get the bottleneck bandwidth of the k-th label of a vertex
+	public int getBottleneck(int vertexIndex, int k) {
+		return labelBottleneck[frontierLabels[frontierOffsets[vertexIndex] + k]];
+	}
+
+	// get the cheapest distance to a vertex over links with at least the bandwidth
+	public int getDistance(int vertexIndex, int bandwidth) {
+		int label = findLabel(vertexIndex, bandwidth);
+		return label == -1 ? Integer.MAX_VALUE : labelCost[label];
+	}
+
+	// get the vertex names of the cheapest path with at least the bandwidth
+	public int[] getPath(int vertexIndex, int bandwidth) {
+		int label = findLabel(vertexIndex, bandwidth);
+		if (label == -1) {
+			return new int[0];
+		}
+
+		int length = 0;
+		for (int l = label; l != -1; l = labelParent[l]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int l = label; l != -1; l = labelParent[l]) {
+			path[--length] = graph.getName(labelNode[l]); // fill the path in reverse order
+		}
+		return path;
+	}
+
+	// answer a (destination, bandwidth) demand by vertex name, empty for an unknown name
+	public PathResult query(int destinationID, int bandwidth) {
+		int destination = graph.indexOf(destinationID);
+		if (destination == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		return new PathResult(getPath(destination, bandwidth), getDistance(destination, bandwidth));
+	}
+
+	// find the first label of the vertex whose bottleneck reaches the bandwidth
+	private int findLabel(int vertexIndex, int bandwidth) {
+		int low = frontierOffsets[vertexIndex];
+		int high = frontierOffsets[vertexIndex + 1];
+		while (low < high) { // bottlenecks increase along the frontier
+			int middle = (low + high) >>> 1;
+			if (labelBottleneck[frontierLabels[middle]] >= bandwidth) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low < frontierOffsets[vertexIndex + 1] ? frontierLabels[low] : -1;
+	}
+}
@@ -0,0 +1,189 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Label-setting search for the Pareto frontier of (path cost, bottleneck bandwidth)
+// from one source to every vertex. One run answers the shortest path for every
+// bandwidth demand, which replaces one Dijkstra per distinct demand. Edge weights
+// must not be negative.
+public class ParetoSearch {
+
+	private final CSRGraph graph;
+
+	public ParetoSearch(CSRGraph graph) {
+		this.graph = graph;
+	}
+
+	// compute the frontier of every vertex from the source vertex name, empty for every
+	// vertex if the name is not in the graph
+	public ParetoFrontier search(int sourceID) {
+		int source = graph.indexOf(sourceID);
+		if (source == -1) {
+			int[] none = new int[0];
+			return new ParetoFrontier(graph, -1, new int[graph.vertexCount() + 1], none, none, none, none, none);
+		}
+		return searchIndex(source);
+	}
+
+	// compute the frontier of every vertex from the source index
+	public ParetoFrontier searchIndex(int sourceIndex) {
+
+		int n = graph.vertexCount();
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int[] weights = graph.weights;
+		int[] bandwidths = graph.bandwidths;
+
+		// the highest bottleneck settled at every vertex, settled labels are cheaper
+		int[] settledBottleneck = new int[n];
+		Arrays.fill(settledBottleneck, Integer.MIN_VALUE);
+
+		Labels labels = new Labels(Math.max(16, n));
+		LabelQueue queue = new LabelQueue(Math.max(16, n));
+		int[] settledOrder = new int[Math.max(16, n)]; // settled labels in increasing cost order
+		int settledCount = 0;
+
+		queue.push(labels.add(0, Integer.MAX_VALUE, sourceIndex, -1), 0, Integer.MAX_VALUE);
+
+		while (!queue.isEmpty()) {
+			int label = queue.poll();
+			int node = labels.node[label];
+			int bottleneck = labels.bottleneck[label];
+			if (bottleneck <= settledBottleneck[node]) {
+				continue; // dominated by a cheaper settled label
+			}
+			settledBottleneck[node] = bottleneck;
+			if (settledCount == settledOrder.length) {
+				settledOrder = Arrays.copyOf(settledOrder, settledCount * 2);
+			}
+			settledOrder[settledCount++] = label;
+
+			int cost = labels.cost[label];
+			int end = offsets[node + 1];
+			for (int e = offsets[node]; e < end; e++) {
+				int target = targets[e];
+				int newBottleneck = Math.min(bottleneck, bandwidths[e]);
+				if (newBottleneck <= settledBottleneck[target]) {
+					continue; // cannot improve the frontier of the target
+				}
+				int newCost = cost + weights[e];
+				queue.push(labels.add(newCost, newBottleneck, target, label), newCost, newBottleneck);
+			}
+		}
+
+		// group the settled labels by vertex, keeping their increasing cost order
+		int[] frontierOffsets = new int[n + 1];
+		for (int k = 0; k < settledCount; k++) {
+			frontierOffsets[labels.node[settledOrder[k]] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			frontierOffsets[i + 1] += frontierOffsets[i];
+		}
+		int[] next = Arrays.copyOf(frontierOffsets, n);
+		int[] frontierLabels = new int[settledCount];
+		for (int k = 0; k < settledCount; k++) {
+			int label = settledOrder[k];
+			frontierLabels[next[labels.node[label]]++] = label;
+		}
+
+		return new ParetoFrontier(graph, sourceIndex, frontierOffsets, frontierLabels, labels.cost,
+				labels.bottleneck, labels.node, labels.parent);
+	}
+
+	// growable label storage
+	private static final class Labels {
+		private int[] cost;
+		private int[] bottleneck;
+		private int[] node;
+		private int[] parent;
+		private int size;
+
+		private Labels(int capacity) {
+			cost = new int[capacity];
+			bottleneck = new int[capacity];
+			node = new int[capacity];
+			parent = new int[capacity];
+		}
+
+		private int add(int labelCost, int labelBottleneck, int labelNode, int labelParent) {
+			if (size == cost.length) {
+				int grown = size * 2;
+				cost = Arrays.copyOf(cost, grown);
+				bottleneck = Arrays.copyOf(bottleneck, grown);
+				node = Arrays.copyOf(node, grown);
+				parent = Arrays.copyOf(parent, grown);
+			}
+			cost[size] = labelCost;
+			bottleneck[size] = labelBottleneck;
+			node[size] = labelNode;
+			parent[size] = labelParent;
+			return size++;
+		}
+	}
+
+	// binary min-heap of labels ordered by cost, then by decreasing bottleneck
+	private static final class LabelQueue {
+		private long[] keys;
+		private int[] ids;
+		private int size;
+
+		private LabelQueue(int capacity) {
+			keys = new long[capacity];
+			ids = new int[capacity];
+		}
+
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		private void push(int label, int cost, int bottleneck) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			long key = ((long) cost << 32) | (0xFFFFFFFFL & ~(bottleneck ^ Integer.MIN_VALUE));
+			int slot = size++;
+			while (slot > 0) {
+				int parentSlot = (slot - 1) >>> 1;
+				if (keys[parentSlot] <= key) {
+					break;
+				}
+				keys[slot] = keys[parentSlot];
+				ids[slot] = ids[parentSlot];
+				slot = parentSlot;
+			}
+			keys[slot] = key;
+			ids[slot] = label;
+		}
+
+		private int poll() {
+			int min = ids[0];
+			size--;
+			if (size > 0) {
+				long key = keys[size];
+				int id = ids[size];
+				int slot = 0;
+				while (true) {
+					int child = 2 * slot + 1;
+					if (child >= size) {
+						break;
+					}
+					if (child + 1 < size && keys[child + 1] < keys[child]) {
+						child++;
+					}
+					if (keys[child] >= key) {
+						break;
+					}
+					keys[slot] = keys[child];
+					ids[slot] = ids[child];
+					slot = child;
+				}
+				keys[slot] = key;
+				ids[slot] = id;
+			}
+			return min;
+		}
+	}
+}
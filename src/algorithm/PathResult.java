@@ -0,0 +1,47 @@
+package algorithm;
+
+import java.util.Arrays;
+
+// Immutable result of a point-to-point query: the vertex names on the path and
+// the total distance. An empty path means that no path exists.
+public final class PathResult {
+
+	private final int[] path;
+	private final int distance;
+	private final int settledCount;
+
+	public PathResult(int[] path, int distance) {
+		this(path, distance, -1);
+	}
+
+	public PathResult(int[] path, int distance, int settledCount) {
+		this.path = path;
+		this.distance = distance;
+		this.settledCount = settledCount;
+	}
+
+	// get the vertex names from source to destination
+	public int[] getPath() {
+		return path;
+	}
+
+	// get the total weight of the path, Integer.MAX_VALUE if no path exists
+	public int getDistance() {
+		return distance;
+	}
+
+	// get the number of vertices settled to answer the query, -1 if not counted
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	// check whether a path was found
+	public boolean isFound() {
+		return distance != Integer.MAX_VALUE;
+	}
+
+	// get the path and its distance
+	public String toString() {
+		return Arrays.toString(path) + " (" + distance + ")";
+	}
+}
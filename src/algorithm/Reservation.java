@@ -0,0 +1,59 @@
+package algorithm;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import graph.LinkCapacity;
+
+// Bandwidth held on the edges of an admitted path. Releasing it gives the demand
+// back to every edge exactly once.
+public final class Reservation {
+
+	private final LinkCapacity capacity;
+	private final int[] edges; // CSR edge indices along the path
+	private final int[] path; // vertex names from source to destination
+	private final int demand;
+	private final int distance;
+	private final int attempts;
+	private final AtomicBoolean released = new AtomicBoolean();
+
+	Reservation(LinkCapacity capacity, int[] edges, int[] path, int demand, int distance, int attempts) {
+		this.capacity = capacity;
+		this.edges = edges;
+		this.path = path;
+		this.demand = demand;
+		this.distance = distance;
+		this.attempts = attempts;
+	}
+
+	// get the vertex names of the reserved path
+	public int[] getPath() {
+		return path.clone();
+	}
+
+	// get the reserved bandwidth
+	public int getDemand() {
+		return demand;
+	}
+
+	// get the total weight of the reserved path
+	public int getDistance() {
+		return distance;
+	}
+
+	// get the number of routing attempts the admission needed
+	public int getAttempts() {
+		return attempts;
+	}
+
+	// check whether the bandwidth was given back
+	public boolean isReleased() {
+		return released.get();
+	}
+
+	// give the bandwidth back to every edge of the path, later calls do nothing
+	public void release() {
+		if (released.compareAndSet(false, true)) {
+			capacity.release(edges, demand);
+		}
+	}
+}
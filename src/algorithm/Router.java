@@ -0,0 +1,308 @@
+package algorithm;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.CSRGraph;
+import graph.GraphStatistics;
+import graph.TopologyCache;
+
+// Routing facade that picks the engine for the caller. The graph statistics are
+// collected once when the router is created; every query then chooses from them
+// and from its pattern (one pair, one source to many destinations, or a batch of
+// pairs), and the last decision with its reason can be read back. The thresholds
+// come from the benchmark drivers in the benchmark package.
+public class Router {
+
+	// engines the router can answer with
+	public enum Engine {
+		DIJKSTRA, BIDIRECTIONAL_DIJKSTRA, DELTA_STEPPING, SPFA, BATCH_DIJKSTRA, JOHNSON, BLOCKED_FLOYD_WARSHALL
+	}
+
+	// shapes of the queries the router is asked
+	public enum QueryPattern {
+		SINGLE_PAIR, SINGLE_SOURCE, MANY_PAIRS
+	}
+
+	// the bidirectional search settles fewer vertices from this size on
+	static final int BIDIRECTIONAL_MIN_VERTICES = 10000;
+	// delta-stepping needs this many vertices per search to pay for its parallel rounds
+	static final int DELTA_STEPPING_MIN_VERTICES = 100000;
+	// largest graph whose V x V distance and predecessor matrices are built
+	static final int MATRIX_MAX_VERTICES = 4096;
+	// Floyd-Warshall overtakes the per-source searches from this density on
+	static final double FLOYD_WARSHALL_MIN_DENSITY = 0.5;
+	// all pairs are computed when at least this fraction of the vertices are sources
+	static final double ALL_PAIRS_MIN_SOURCES = 0.25;
+
+	private final CSRGraph graph;
+	private final ForkJoinPool pool;
+	private final GraphStatistics statistics;
+	private volatile RoutingDecision lastDecision;
+
+	// engines are created on their first use
+	private volatile Dijkstra dijkstra;
+	private volatile BidirectionalDijkstra bidirectional;
+	private volatile DeltaStepping deltaStepping;
+	private volatile SPFA spfa;
+	private volatile BatchRouter batchRouter;
+
+	// create the router for a topology file, loaded through the shared cache
+	public Router(String fileName) {
+		this(TopologyCache.getShared().get(fileName).getGraph());
+	}
+
+	// create the router on the common pool
+	public Router(CSRGraph graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	// create the router with the parallel engines running in the given pool
+	public Router(CSRGraph graph, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+		this.statistics = GraphStatistics.of(graph);
+	}
+
+	// get the graph of the router
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the statistics collected when the router was created
+	public GraphStatistics getStatistics() {
+		return statistics;
+	}
+
+	// get the decision of the last query, null before the first one
+	public RoutingDecision getLastDecision() {
+		return lastDecision;
+	}
+
+	// choose the engine for a query pattern with the given number of distinct sources,
+	// oneBandwidth is false when the pairs ask for different bandwidths
+	public RoutingDecision choose(QueryPattern pattern, int sources, boolean oneBandwidth) {
+		int n = statistics.getVertexCount();
+		boolean negative = statistics.hasNegativeWeights();
+		int parallelism = pool.getParallelism();
+
+		switch (pattern) {
+		case SINGLE_PAIR:
+			if (negative) {
+				return new RoutingDecision(pattern, Engine.SPFA, String.format(
+						"negative weights (min %d) rule out Dijkstra", statistics.getMinWeight()));
+			}
+			if (n >= BIDIRECTIONAL_MIN_VERTICES) {
+				return new RoutingDecision(pattern, Engine.BIDIRECTIONAL_DIJKSTRA, String.format(
+						"%d vertices >= %d: two half-size searches settle fewer vertices", n,
+						BIDIRECTIONAL_MIN_VERTICES));
+			}
+			return new RoutingDecision(pattern, Engine.DIJKSTRA, String.format(
+					"%d vertices < %d: Dijkstra stopping at the destination is cheapest", n,
+					BIDIRECTIONAL_MIN_VERTICES));
+
+		case SINGLE_SOURCE:
+			if (negative) {
+				return new RoutingDecision(pattern, Engine.SPFA, String.format(
+						"negative weights (min %d) rule out Dijkstra", statistics.getMinWeight()));
+			}
+			if (n >= DELTA_STEPPING_MIN_VERTICES && parallelism > 1) {
+				return new RoutingDecision(pattern, Engine.DELTA_STEPPING, String.format(
+						"%d vertices >= %d and %d threads: buckets are relaxed in parallel", n,
+						DELTA_STEPPING_MIN_VERTICES, parallelism));
+			}
+			return new RoutingDecision(pattern, Engine.DIJKSTRA, parallelism > 1
+					? String.format("%d vertices < %d: too small for parallel rounds", n, DELTA_STEPPING_MIN_VERTICES)
+					: "one thread: delta-stepping cannot run in parallel");
+
+		default:
+			boolean matrixFits = n <= MATRIX_MAX_VERTICES;
+			if (negative) {
+				if (oneBandwidth && matrixFits && sources > 1) {
+					return new RoutingDecision(pattern, Engine.JOHNSON, String.format(
+							"negative weights and %d sources: one Bellman-Ford reweighting, then Dijkstra per source",
+							sources));
+				}
+				return new RoutingDecision(pattern, Engine.SPFA, !oneBandwidth
+						? "negative weights and several bandwidths: one Bellman-Ford search per source"
+						: matrixFits ? "negative weights and one source: a single Bellman-Ford search"
+								: String.format("negative weights and %d vertices > %d: no room for the matrices", n,
+										MATRIX_MAX_VERTICES));
+			}
+			double density = statistics.getDensity();
+			if (oneBandwidth && matrixFits && density >= FLOYD_WARSHALL_MIN_DENSITY
+					&& sources >= ALL_PAIRS_MIN_SOURCES * n) {
+				return new RoutingDecision(pattern, Engine.BLOCKED_FLOYD_WARSHALL, String.format(
+						"density %.3f >= %.2f and %d of %d vertices are sources: all pairs at once", density,
+						FLOYD_WARSHALL_MIN_DENSITY, sources, n));
+			}
+			return new RoutingDecision(pattern, Engine.BATCH_DIJKSTRA, String.format(
+					"%d sources, density %.4f: one shortest-path tree per source answers all its pairs", sources,
+					density));
+		}
+	}
+
+	// compute the shortest path between two vertex names
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		RoutingDecision decision = choose(QueryPattern.SINGLE_PAIR, 1, true);
+		lastDecision = decision;
+
+		switch (decision.getEngine()) {
+		case SPFA:
+			return getSPFA().shortestPath(sourceID, destinationID, bandwidth);
+		case BIDIRECTIONAL_DIJKSTRA:
+			return getBidirectional().shortestPath(sourceID, destinationID, bandwidth);
+		default:
+			return getDijkstra().shortestPath(sourceID, destinationID, bandwidth);
+		}
+	}
+
+	// compute the shortest paths from one vertex name to each of the destination names
+	public PathResult[] shortestPaths(int sourceID, int[] destinationIDs, int bandwidth) {
+		RoutingDecision decision = choose(QueryPattern.SINGLE_SOURCE, 1, true);
+		lastDecision = decision;
+
+		PathResult[] results = new PathResult[destinationIDs.length];
+		int source = graph.indexOf(sourceID);
+		if (source == -1) {
+			for (int i = 0; i < results.length; i++) {
+				results[i] = new PathResult(new int[0], Integer.MAX_VALUE);
+			}
+			return results;
+		}
+
+		if (decision.getEngine() == Engine.SPFA) {
+			BellmanFordResult tree = getSPFA().searchIndex(source, bandwidth);
+			for (int i = 0; i < results.length; i++) {
+				results[i] = tree.query(destinationIDs[i]);
+			}
+			return results;
+		}
+
+		int n = graph.vertexCount();
+		int[] distance = new int[n];
+		int[] previous = new int[n];
+		if (decision.getEngine() == Engine.DELTA_STEPPING) {
+			getDeltaStepping().computePaths(source, bandwidth, distance, previous);
+		} else {
+			getDijkstra().computePaths(source, bandwidth, distance, previous);
+		}
+		for (int i = 0; i < results.length; i++) {
+			results[i] = toResult(distance, previous, graph.indexOf(destinationIDs[i]));
+		}
+		return results;
+	}
+
+	// answer request i = (sourceIDs[i], destinationIDs[i], bandwidths[i]) for every i
+	public PathResult[] route(int[] sourceIDs, int[] destinationIDs, int[] bandwidths) {
+		int numRequests = sourceIDs.length;
+		if (destinationIDs.length != numRequests || bandwidths.length != numRequests) {
+			throw new IllegalArgumentException("Request arrays differ in length");
+		}
+
+		Set<Long> groups = new HashSet<Long>(); // distinct (source, bandwidth) pairs
+		boolean oneBandwidth = true;
+		for (int r = 0; r < numRequests; r++) {
+			groups.add(((long) sourceIDs[r] << 32) | (bandwidths[r] & 0xFFFFFFFFL));
+			oneBandwidth &= bandwidths[r] == bandwidths[0];
+		}
+		RoutingDecision decision = choose(QueryPattern.MANY_PAIRS, groups.size(), oneBandwidth);
+		lastDecision = decision;
+
+		PathResult[] results = new PathResult[numRequests];
+		switch (decision.getEngine()) {
+		case JOHNSON: {
+			Johnson johnson = new Johnson(pool);
+			boolean computed = johnson.compute(graph, bandwidths[0]);
+			for (int r = 0; r < numRequests; r++) {
+				int source = graph.indexOf(sourceIDs[r]);
+				int destination = graph.indexOf(destinationIDs[r]);
+				results[r] = !computed || source == -1 || destination == -1
+						? new PathResult(new int[0], Integer.MAX_VALUE)
+						: new PathResult(johnson.getPath(source, destination), source == destination ? 0
+								: johnson.getDistance(source, destination));
+			}
+			return results;
+		}
+		case BLOCKED_FLOYD_WARSHALL: {
+			BlockedFloydWarshall floydWarshall = new BlockedFloydWarshall(pool, 64);
+			floydWarshall.compute(graph, bandwidths[0]);
+			for (int r = 0; r < numRequests; r++) {
+				int source = graph.indexOf(sourceIDs[r]);
+				int destination = graph.indexOf(destinationIDs[r]);
+				results[r] = source == -1 || destination == -1
+						? new PathResult(new int[0], Integer.MAX_VALUE)
+						: new PathResult(floydWarshall.getPath(source, destination), source == destination ? 0
+								: floydWarshall.getDistance(source, destination));
+			}
+			return results;
+		}
+		case SPFA: {
+			SPFA engine = getSPFA();
+			for (int r = 0; r < numRequests; r++) {
+				results[r] = engine.shortestPath(sourceIDs[r], destinationIDs[r], bandwidths[r]);
+			}
+			return results;
+		}
+		default: {
+			BatchResult batch = getBatchRouter().route(sourceIDs, destinationIDs, bandwidths);
+			for (int r = 0; r < numRequests; r++) {
+				results[r] = batch.getResult(r);
+			}
+			return results;
+		}
+		}
+	}
+
+	// get the path to a destination index from full-size distance/previous arrays
+	private PathResult toResult(int[] distance, int[] previous, int destination) {
+		if (destination == -1 || distance[destination] == Integer.MAX_VALUE) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		int length = 0;
+		for (int v = destination; v != -1; v = previous[v]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int v = destination; v != -1; v = previous[v]) {
+			path[--length] = graph.getName(v); // fill the path in reverse order
+		}
+		return new PathResult(path, distance[destination]);
+	}
+
+	private Dijkstra getDijkstra() {
+		if (dijkstra == null) {
+			dijkstra = new Dijkstra(graph);
+		}
+		return dijkstra;
+	}
+
+	private BidirectionalDijkstra getBidirectional() {
+		if (bidirectional == null) {
+			bidirectional = new BidirectionalDijkstra(graph);
+		}
+		return bidirectional;
+	}
+
+	private DeltaStepping getDeltaStepping() {
+		if (deltaStepping == null) {
+			deltaStepping = new DeltaStepping(graph, pool, DeltaStepping.defaultDelta(graph));
+		}
+		return deltaStepping;
+	}
+
+	private SPFA getSPFA() {
+		if (spfa == null) {
+			spfa = new SPFA(graph);
+		}
+		return spfa;
+	}
+
+	private BatchRouter getBatchRouter() {
+		if (batchRouter == null) {
+			batchRouter = new BatchRouter(graph, pool);
+		}
+		return batchRouter;
+	}
+}
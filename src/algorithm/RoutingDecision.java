@@ -0,0 +1,35 @@
+package algorithm;
+
+// Engine picked by the Router for a query pattern, with the statistics that decided it.
+public final class RoutingDecision {
+
+	private final Router.QueryPattern pattern;
+	private final Router.Engine engine;
+	private final String reason;
+
+	RoutingDecision(Router.QueryPattern pattern, Router.Engine engine, String reason) {
+		this.pattern = pattern;
+		this.engine = engine;
+		this.reason = reason;
+	}
+
+	// get the query pattern the decision was made for
+	public Router.QueryPattern getPattern() {
+		return pattern;
+	}
+
+	// get the engine answering the queries
+	public Router.Engine getEngine() {
+		return engine;
+	}
+
+	// get why the engine was picked
+	public String getReason() {
+		return reason;
+	}
+
+	// get the engine and the reason
+	public String toString() {
+		return pattern + " -> " + engine + ": " + reason;
+	}
+}
@@ -0,0 +1,138 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Queue-based Bellman-Ford (shortest path faster algorithm) on a CSR snapshot.
+// Only vertices whose distance changed are queued again, so a round scans the
+// edges of the changed vertices instead of all edges, and the search ends as soon
+// as a round changes nothing. Negative edge weights are allowed: a vertex whose
+// path grows to V edges proves a negative cycle, which is reported in the result.
+public class SPFA {
+
+	private final CSRGraph graph;
+
+	public SPFA(CSRGraph graph) {
+		this.graph = graph;
+	}
+
+	// get the graph of the engine
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// compute all paths from a vertex name over edges with enough bandwidth
+	public BellmanFordResult search(int sourceID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		if (source == -1) {
+			throw new IllegalArgumentException("Unknown source vertex: " + sourceID);
+		}
+		return searchIndex(source, bandwidth);
+	}
+
+	// compute all paths from a vertex index over edges with enough bandwidth
+	public BellmanFordResult searchIndex(int sourceIndex, int bandwidth) {
+
+		int numVertices = graph.vertexCount();
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int[] weights = graph.weights;
+
+		int[] distance = new int[numVertices];
+		int[] predecessor = new int[numVertices];
+		int[] edges = new int[numVertices]; // number of edges on the current path of every vertex
+		boolean[] queued = new boolean[numVertices];
+		int[] queue = new int[numVertices]; // ring buffer, every vertex is queued at most once
+		Arrays.fill(distance, Integer.MAX_VALUE);
+		Arrays.fill(predecessor, -1);
+
+		distance[sourceIndex] = 0;
+		queue[0] = sourceIndex;
+		queued[sourceIndex] = true;
+		int head = 0;
+		int size = 1;
+		int rounds = 0;
+		long relaxations = 0;
+
+		while (size > 0) {
+			rounds++;
+			for (int roundSize = size; roundSize > 0; roundSize--) { // vertices changed in the last round
+				int currentNode = queue[head];
+				head = head + 1 == numVertices ? 0 : head + 1;
+				size--;
+				queued[currentNode] = false;
+				int currentDistance = distance[currentNode];
+
+				int end = graph.eligibleEnd(currentNode, bandwidth); // skip under-capacity links
+				for (int e = offsets[currentNode]; e < end; e++) {
+					int targetNode = targets[e];
+					long weightToTarget = (long) currentDistance + weights[e];
+					if (weightToTarget >= distance[targetNode]) {
+						continue;
+					}
+
+					distance[targetNode] = (int) weightToTarget;
+					predecessor[targetNode] = currentNode;
+					edges[targetNode] = edges[currentNode] + 1;
+					relaxations++;
+					if (edges[targetNode] >= numVertices) { // a simple path has at most V - 1 edges
+						int[] cycle = findCycle(predecessor);
+						if (cycle != null) {
+							return new BellmanFordResult(graph, sourceIndex, distance, predecessor, cycle, rounds,
+									relaxations);
+						}
+					}
+					if (!queued[targetNode]) {
+						int tail = head + size;
+						queue[tail >= numVertices ? tail - numVertices : tail] = targetNode;
+						queued[targetNode] = true;
+						size++;
+					}
+				}
+			}
+		}
+
+		return new BellmanFordResult(graph, sourceIndex, distance, predecessor, null, rounds, relaxations);
+	}
+
+	// compute the path between two vertex names, empty if either name is not in the graph
+	// or a negative cycle is reachable from the source
+	public PathResult shortestPath(int sourceID, int destinationID, int bandwidth) {
+		int source = graph.indexOf(sourceID);
+		if (source == -1) {
+			return new PathResult(new int[0], Integer.MAX_VALUE);
+		}
+		return searchIndex(source, bandwidth).query(destinationID);
+	}
+
+	// find a cycle in the predecessor graph, null if the predecessors still form a tree
+	private int[] findCycle(int[] predecessor) {
+		int numVertices = graph.vertexCount();
+		int[] walk = new int[numVertices]; // number of the walk that first visited every vertex, 0 if none
+
+		for (int start = 0; start < numVertices; start++) {
+			int v = start;
+			while (v != -1 && walk[v] == 0) { // follow the predecessors until a visited vertex
+				walk[v] = start + 1;
+				v = predecessor[v];
+			}
+			if (v == -1 || walk[v] != start + 1) {
+				continue; // the walk ended at the source or joined an earlier walk
+			}
+
+			int length = 1;
+			for (int u = predecessor[v]; u != v; u = predecessor[u]) {
+				length++;
+			}
+			int[] cycle = new int[length];
+			int u = v;
+			for (int i = length - 1; i >= 0; i--) { // fill in edge order
+				cycle[i] = graph.getName(u);
+				u = predecessor[u];
+			}
+			return cycle;
+		}
+		return null;
+	}
+}
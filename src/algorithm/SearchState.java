@@ -0,0 +1,117 @@
+package algorithm;
+
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Per-query search state held outside the graph. The arrays are allocated once
+// per thread and only the vertices touched by a query are reset afterwards, so a
+// single topology can serve concurrent queries without allocating per query.
+public final class SearchState {
+
+	private final int[] distance; // tentative distance of every vertex
+	private final int[] previous; // predecessor index of every vertex, -1 if none
+	private final int[] touched; // vertices whose distance was written
+	private int touchedCount;
+	private int settledCount; // vertices polled from the queue
+	private final IndexedHeap queue;
+
+	// create the state for a graph with numVertices vertices
+	public SearchState(int numVertices) {
+		this(numVertices, 4);
+	}
+
+	// create the state with a queue of the given heap arity
+	public SearchState(int numVertices, int arity) {
+		this.distance = new int[numVertices];
+		this.previous = new int[numVertices];
+		this.touched = new int[numVertices];
+		this.queue = new IndexedHeap(numVertices, arity);
+		Arrays.fill(distance, Integer.MAX_VALUE);
+		Arrays.fill(previous, -1);
+	}
+
+	// get the number of vertices the state was created for
+	public int capacity() {
+		return distance.length;
+	}
+
+	// get the distance of a vertex, Integer.MAX_VALUE if unreached
+	public int getDistance(int vertex) {
+		return distance[vertex];
+	}
+
+	// get the predecessor of a vertex, -1 if none
+	public int getPrevious(int vertex) {
+		return previous[vertex];
+	}
+
+	// get the number of vertices reached by the last query
+	public int getTouchedCount() {
+		return touchedCount;
+	}
+
+	// get the i-th vertex reached by the last query
+	public int getTouched(int i) {
+		return touched[i];
+	}
+
+	// get the number of vertices settled by the last query
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	// count a vertex polled from the queue
+	void settled() {
+		settledCount++;
+	}
+
+	// set the distance and predecessor of a vertex
+	public void update(int vertex, int newDistance, int newPrevious) {
+		if (distance[vertex] == Integer.MAX_VALUE) {
+			touched[touchedCount++] = vertex; // first write since the last reset
+		}
+		distance[vertex] = newDistance;
+		previous[vertex] = newPrevious;
+	}
+
+	// get the queue of the state
+	IndexedHeap getQueue() {
+		return queue;
+	}
+
+	// clear the results of the last query in O(touched vertices)
+	public void reset() {
+		for (int i = 0; i < touchedCount; i++) {
+			distance[touched[i]] = Integer.MAX_VALUE;
+			previous[touched[i]] = -1;
+		}
+		touchedCount = 0;
+		settledCount = 0;
+		queue.clear();
+	}
+
+	// define the path of vertex names from the source to the destination index
+	public int[] pathTo(CSRGraph graph, int destinationIndex) {
+		if (distance[destinationIndex] == Integer.MAX_VALUE) {
+			return new int[0];
+		}
+
+		int length = 0;
+		for (int vertex = destinationIndex; vertex != -1; vertex = previous[vertex]) {
+			length++;
+		}
+
+		int[] path = new int[length];
+		for (int vertex = destinationIndex; vertex != -1; vertex = previous[vertex]) {
+			path[--length] = graph.getName(vertex); // fill the path in reverse order
+		}
+		return path;
+	}
+
+	// copy the distances and predecessors into full-size arrays
+	public void copyTo(int[] distanceOut, int[] previousOut) {
+		System.arraycopy(distance, 0, distanceOut, 0, distance.length);
+		System.arraycopy(previous, 0, previousOut, 0, previous.length);
+	}
+}
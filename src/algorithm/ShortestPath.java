@@ -1,9 +1,11 @@
 package algorithm;
 
 // include graph classes
+import graph.CSRGraph;
 import graph.Edge;
 import graph.Vertex;
-import graph.GenerateVertex;
+import graph.Topology;
+import graph.TopologyCache;
 
 import java.util.List;
 import java.util.PriorityQueue;
@@ -17,6 +19,8 @@ public class ShortestPath {
 	private List<Vertex> vertices;
 	private String fileName;
 	private int totalDistance;
+	private LoadedTopology topology; // topology of fileName taken from the cache
+	private volatile Dijkstra engine; // engine of the last queried CSR snapshot
 
 	// constructor without any file
 	public ShortestPath() { // initialize all variables
@@ -39,14 +43,18 @@ public class ShortestPath {
 
 		sourceNode.setMinDistance(0); // initialize minimum distance
 		
-		// create a queue for measuring distance
-		PriorityQueue<Vertex> vertexQueue = new PriorityQueue<Vertex>();
-		vertexQueue.add(sourceNode);
+		// create a queue ordered by the distance of every entry
+		PriorityQueue<QueueEntry> vertexQueue = new PriorityQueue<QueueEntry>();
+		vertexQueue.add(new QueueEntry(sourceNode, 0));
 
 		while (!vertexQueue.isEmpty()) {// check all connections	
 			
 			// get the first element from the queue
-			Vertex currentNode = vertexQueue.poll();
+			QueueEntry entry = vertexQueue.poll();
+			Vertex currentNode = entry.vertex;
+			if (entry.distance != currentNode.getMinDistance()) {
+				continue; // skip entries replaced by a shorter distance
+			}
 			
 			// check all connected edges with currentNode
 			for (int i = 0; i < currentNode.adjacencies.size(); i++) {
@@ -63,13 +71,13 @@ public class ShortestPath {
 
 					// check the minimum distance from source to the neighbor of the currentNode
 					if (weightToCurrentNode < targetNode.getMinDistance()) {
-						vertexQueue.remove(targetNode); // remove current version
 						
 						// update minimum distance and previous node of the target node
 						targetNode.setMinDistance(weightToCurrentNode);
 						targetNode.setPreviousVertex(currentNode);
 
-						vertexQueue.add(targetNode); // add updated node into the list
+						// add the updated distance, the older entry is skipped when polled
+						vertexQueue.add(new QueueEntry(targetNode, weightToCurrentNode));
 					}
 				}
 
@@ -80,6 +88,49 @@ public class ShortestPath {
 		vertexQueue.clear();
 	}
 
+	// compute all paths from the source index to all other nodes of a CSR snapshot
+	public void computePaths(CSRGraph graph, int sourceIndex, int bandwidth, int[] distance, int[] previous) {
+		new Dijkstra(graph).computePaths(sourceIndex, bandwidth, distance, previous);
+	}
+
+	// define the path of vertex names from the source to the destination index
+	public int[] getShortestPathTo(CSRGraph graph, int[] previous, int destinationIndex) {
+
+		int length = 0;
+		for (int vertex = destinationIndex; vertex != -1; vertex = previous[vertex]) {
+			length++;
+		}
+
+		int[] path = new int[length];
+		for (int vertex = destinationIndex; vertex != -1; vertex = previous[vertex]) {
+			path[--length] = graph.getName(vertex); // fill the path in reverse order
+		}
+		return path;
+	}
+
+	// find the shortest path from source to destination on a CSR snapshot
+	public int[] defineShortestPath(CSRGraph graph, int sourceID, int destinationID, int bandWidth) {
+
+		Dijkstra dijkstra = engine;
+		if (dijkstra == null || dijkstra.getGraph() != graph) {
+			dijkstra = new Dijkstra(graph);
+			engine = dijkstra;
+		}
+
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) { // unknown vertex name
+			this.totalDistance = Integer.MAX_VALUE;
+			return new int[0];
+		}
+
+		SearchState state = dijkstra.search(source, bandWidth, destination); // run Dijkstra until the destination is settled
+
+		this.totalDistance = state.getDistance(destination); // get total weight of the path
+
+		return state.pathTo(graph, destination); // only the source when it is the destination
+	}
+
 	// define the path from source to destination
 	public List<Vertex> getShortestPathTo(Vertex destinationNode) {
 
@@ -95,25 +146,23 @@ public class ShortestPath {
 	// find the shortest path from source to destination
 	public List<Vertex> defineShortestPath(int sourceID, int destionationID, int bandWidth) {
 
-		// get all substrate vertices from the file
-		GenerateVertex vertexObject = new GenerateVertex(this.fileName);
-		vertices = vertexObject.getVertices();
-		Vertex source = getVertex(vertices, sourceID); // get source vertex
-		Vertex destination = getVertex(vertices, destionationID); // get destination vertex
+		// get the substrate snapshot, loaded from the file only once
+		LoadedTopology loaded = loadTopology();
+		Dijkstra dijkstra = loaded.engine;
+		CSRGraph graph = dijkstra.getGraph();
+		int source = graph.indexOf(sourceID); // get source index
+		int destination = graph.indexOf(destionationID); // get destination index
+		if (source == -1 || destination == -1) { // unknown vertex name
+			this.totalDistance = Integer.MAX_VALUE;
+			return new ArrayList<Vertex>();
+		}
 
 		// Computation for the shortest path from source to destination
-		computePaths(source, bandWidth); // run Dijkstra Shortest path
+		SearchState state = dijkstra.search(source, bandWidth, destination); // run Dijkstra until the destination is settled
 
-		List<Vertex> path = getShortestPathTo(destination); // get all nodes in the path
+		this.totalDistance = state.getDistance(destination); // get total weight of the path
 
-		this.totalDistance = destination.getMinDistance(); // get total weight of the path
-
-		if (path.size() > 1) {
-			return path;
-		} else {
-			path.clear();
-			return path;
-		}
+		return getShortestPathTo(loaded.vertices, state, destination); // get all nodes in the path
 	}
 
 	public void computePathsBellmanFord(Vertex sourceNode, int bandwidth) {
@@ -150,28 +199,115 @@ public class ShortestPath {
 	}
 
 	public List<Vertex> defineShortestPathBellmanFord(int sourceID, int destinationID, int bandWidth) {
-        GenerateVertex vertexObject = new GenerateVertex(this.fileName);
-        vertices = vertexObject.getVertices();
-        Vertex source = getVertex(vertices, sourceID);
-        Vertex destination = getVertex(vertices, destinationID);
+		LoadedTopology loaded = loadTopology();
+		CSRGraph graph = loaded.engine.getGraph();
+		int source = graph.indexOf(sourceID);
+		int destination = graph.indexOf(destinationID);
+		if (source == -1 || destination == -1) { // unknown vertex name
+			this.totalDistance = Integer.MAX_VALUE;
+			return new ArrayList<Vertex>();
+		}
 
-        computePathsBellmanFord(source, bandWidth);
+		SearchState state = loaded.engine.acquireState(); // per-query state of this thread
+		computePathsBellmanFord(graph, state, source, bandWidth);
 
-        List<Vertex> path = getShortestPathTo(destination);
+		this.totalDistance = state.getDistance(destination);
 
-        this.totalDistance = destination.getMinDistance();
+		return getShortestPathTo(loaded.vertices, state, destination);
+	}
 
-        if (path.size() > 1) {
-            return path;
-        } else {
-            path.clear();
-            return path;
-        }
-    }
+	// Bellman-Ford on a CSR snapshot, the results are written into the search state
+	private void computePathsBellmanFord(CSRGraph graph, SearchState state, int sourceIndex, int bandwidth) {
+		state.update(sourceIndex, 0, -1); // initialize minimum distance
+
+		for (int i = 0; i < graph.vertexCount() - 1; i++) {
+			boolean changed = false;
+			for (int currentNode = 0; currentNode < graph.vertexCount(); currentNode++) {
+				int currentDistance = state.getDistance(currentNode);
+				if (currentDistance == Integer.MAX_VALUE) {
+					continue;
+				}
+				int end = graph.eligibleEnd(currentNode, bandwidth); // skip under-capacity links
+				for (int e = graph.offsets[currentNode]; e < end; e++) {
+					int targetNode = graph.targets[e];
+					int weightToCurrentNode = currentDistance + graph.weights[e];
+
+					if (weightToCurrentNode < state.getDistance(targetNode)) {
+						state.update(targetNode, weightToCurrentNode, currentNode);
+						changed = true;
+					}
+				}
+			}
+			if (!changed) {
+				break; // no distance changed in this round
+			}
+		}
+	}
+
+	// map the path of a search state to the loaded vertices, empty if there is no path
+	private List<Vertex> getShortestPathTo(List<Vertex> vertices, SearchState state, int destinationIndex) {
+
+		List<Vertex> path = new ArrayList<Vertex>();
+		if (state.getDistance(destinationIndex) == Integer.MAX_VALUE) {
+			return path;
+		}
+		for (int vertex = destinationIndex; vertex != -1; vertex = state.getPrevious(vertex)) {
+			path.add(vertices.get(vertex));
+		} // end-for path list
+
+		if (path.size() > 1) {
+			Collections.reverse(path); // reverse the nodes in the list
+		} else {
+			path.clear();
+		}
+		return path;
+	}
+
+	// get the cached snapshot of the file with a copy of its vertices owned by this object
+	private synchronized LoadedTopology loadTopology() {
+		Topology current = TopologyCache.getShared().get(this.fileName);
+		if (topology == null || topology.topology != current) { // first query or the file was reloaded
+			topology = new LoadedTopology(current);
+			vertices = topology.vertices; // vertices share the indices of the snapshot
+		}
+		return topology;
+	}
 
 	public int getTotalDistance() {
 		// return total weight of the path
 		return this.totalDistance;
 	}
 
+	// cached topology together with the engine answering its queries and this
+	// object's own copy of the vertices
+	private static final class LoadedTopology {
+
+		private final Topology topology;
+		private final Dijkstra engine;
+		private final List<Vertex> vertices;
+
+		private LoadedTopology(Topology topology) {
+			this.topology = topology;
+			this.engine = new Dijkstra(topology.getGraph());
+			this.vertices = topology.getVertices();
+		}
+	}
+
+	// queued vertex with the distance it was queued with
+	private static final class QueueEntry implements Comparable<QueueEntry> {
+
+		private final Vertex vertex;
+		private final int distance;
+
+		private QueueEntry(Vertex vertex, int distance) {
+			this.vertex = vertex;
+			this.distance = distance;
+		}
+
+		@Override
+		public int compareTo(QueueEntry nextEntry) {
+			return Integer.compare(distance, nextEntry.distance);
+		}
+	}
+
 }
\ No newline at end of file
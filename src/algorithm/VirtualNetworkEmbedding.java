@@ -0,0 +1,358 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import graph.CSRGraph;
+import graph.Edge;
+import graph.GenerateVertex;
+import graph.LinkCapacity;
+import graph.Vertex;
+
+// Maps virtual networks onto the substrate. Virtual vertices are placed in
+// Vertex.compareTo order, largest CPU demand and degree first. The candidates of
+// a virtual vertex are the first substrate vertices in the same order that still
+// have the CPU and RAM, and enough residual bandwidth on their own links in and
+// out; they are evaluated in parallel by the residual distance to the hosts of the
+// virtual neighbours placed so far, and the cheapest one wins. When none of them
+// is reachable, the next batch in ranking order is evaluated.
+// Every virtual link is then routed and reserved through AdmissionControl. A
+// request that cannot be placed completely is rolled back and rejected.
+public class VirtualNetworkEmbedding {
+
+	public static final int DEFAULT_CANDIDATES = 8;
+	private static final int MAX_ROUNDS = 4; // candidate batches per virtual vertex
+
+	private final CSRGraph substrate;
+	private final AdmissionControl links;
+	private final AtomicIntegerArray cpu; // residual CPU of every substrate vertex
+	private final AtomicIntegerArray ram; // residual RAM of every substrate vertex
+	private final int[] ranking; // substrate indices in Vertex.compareTo order
+	private final int[] incomingOffsets; // start of the incoming edges of every substrate vertex
+	private final int[] incomingEdges; // CSR edge index of every incoming edge
+	private final ForkJoinPool pool;
+	private final int candidates;
+
+	private final AtomicLong accepted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong embedNanos = new AtomicLong();
+
+	// embed on the full capacity of the substrate, evaluating at most candidates hosts per virtual vertex
+	public VirtualNetworkEmbedding(CSRGraph substrate, ForkJoinPool pool, int candidates) {
+		if (candidates < 1) {
+			throw new IllegalArgumentException("At least one candidate is required: " + candidates);
+		}
+		this.substrate = substrate;
+		this.links = new AdmissionControl(new LinkCapacity(substrate), 3);
+		this.cpu = new AtomicIntegerArray(substrate.cpu);
+		this.ram = new AtomicIntegerArray(substrate.ram);
+		this.pool = pool;
+		this.candidates = candidates;
+
+		int n = substrate.vertexCount();
+		this.incomingOffsets = new int[n + 1];
+		this.incomingEdges = new int[substrate.edgeCount()];
+		for (int e = 0; e < incomingEdges.length; e++) { // count the incoming edges of every vertex
+			incomingOffsets[substrate.targets[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			incomingOffsets[i + 1] += incomingOffsets[i];
+		}
+		int[] next = Arrays.copyOf(incomingOffsets, n);
+		for (int e = 0; e < incomingEdges.length; e++) {
+			incomingEdges[next[substrate.targets[e]]++] = e;
+		}
+
+		List<Vertex> vertices = substrate.toVertices();
+		Collections.sort(vertices);
+		this.ranking = new int[vertices.size()];
+		for (int i = 0; i < ranking.length; i++) {
+			ranking[i] = substrate.indexOf(vertices.get(i).name);
+		}
+	}
+
+	public VirtualNetworkEmbedding(CSRGraph substrate) {
+		this(substrate, ForkJoinPool.commonPool(), DEFAULT_CANDIDATES);
+	}
+
+	// get the substrate the requests are embedded in
+	public CSRGraph getSubstrate() {
+		return substrate;
+	}
+
+	// get the residual CPU of a substrate vertex index
+	public int getResidualCPU(int index) {
+		return cpu.get(index);
+	}
+
+	// get the residual RAM of a substrate vertex index
+	public int getResidualRAM(int index) {
+		return ram.get(index);
+	}
+
+	// get the link admission the virtual links are reserved with
+	public AdmissionControl getLinks() {
+		return links;
+	}
+
+	// embed the virtual network of a topology file, null if it is rejected
+	public Embedding embed(String fileName) {
+		return embed(new GenerateVertex(fileName).getVertices());
+	}
+
+	// embed every file in order, a rejected request maps to null
+	public Map<String, Embedding> embedAll(List<String> fileNames) {
+		Map<String, Embedding> embeddings = new LinkedHashMap<String, Embedding>();
+		for (String fileName : fileNames) {
+			embeddings.put(fileName, embed(fileName));
+		}
+		return embeddings;
+	}
+
+	// embed a virtual network, null if it is rejected
+	public Embedding embed(List<Vertex> virtualNetwork) {
+		long start = System.nanoTime();
+		try {
+			Embedding embedding = place(virtualNetwork);
+			(embedding == null ? rejected : accepted).incrementAndGet();
+			return embedding;
+		} finally {
+			embedNanos.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	private Embedding place(List<Vertex> virtualNetwork) {
+		int k = virtualNetwork.size();
+		List<Vertex> order = new ArrayList<Vertex>(virtualNetwork);
+		Collections.sort(order);
+
+		int[] virtualNames = new int[k];
+		int[] hosts = new int[k];
+		int[] cpuDemand = new int[k];
+		int[] ramDemand = new int[k];
+		Map<Integer, Integer> position = new HashMap<Integer, Integer>(k * 2); // virtual name -> placement
+		boolean[] used = new boolean[substrate.vertexCount()]; // one virtual vertex per host
+		Map<Integer, Long> incomingDemand = new HashMap<Integer, Long>(k * 2); // bandwidth into every virtual vertex
+		for (Vertex virtual : order) {
+			for (Edge edge : virtual.adjacencies) {
+				incomingDemand.merge(edge.getTargetVertex().name, (long) edge.getBandwidth(), Long::sum);
+			}
+		}
+
+		// node mapping
+		for (int p = 0; p < k; p++) {
+			Vertex virtual = order.get(p);
+			int[] linkHosts = new int[2 * k]; // at most one link each way per placed vertex
+			int[] linkDemands = new int[2 * k];
+			boolean[] outgoing = new boolean[2 * k];
+			int linkCount = 0;
+
+			// virtual links to and from the vertices placed so far
+			for (Edge edge : virtual.adjacencies) {
+				Integer placed = position.get(edge.getTargetVertex().name);
+				if (placed != null) {
+					linkHosts[linkCount] = hosts[placed];
+					linkDemands[linkCount] = edge.getBandwidth();
+					outgoing[linkCount++] = true;
+				}
+			}
+			for (int q = 0; q < p; q++) {
+				for (Edge edge : order.get(q).adjacencies) {
+					if (edge.getTargetVertex().name == virtual.name) {
+						linkHosts[linkCount] = hosts[q];
+						linkDemands[linkCount++] = edge.getBandwidth();
+					}
+				}
+			}
+
+			// evaluate the candidates batch by batch in ranking order until one is reachable
+			int host = -1;
+			int[] cursor = new int[1]; // next rank to scan
+			for (int round = 0; host == -1 && round < MAX_ROUNDS; round++) {
+				int[] candidateHosts = candidates(virtual, incomingDemand.getOrDefault(virtual.name, 0L), used, cursor);
+				if (candidateHosts.length == 0) {
+					break;
+				}
+				long[] costs = evaluate(candidateHosts, linkHosts, linkDemands, outgoing, linkCount);
+				host = choose(virtual, candidateHosts, costs);
+			}
+			if (host == -1) {
+				for (int q = 0; q < p; q++) {
+					releaseHost(hosts[q], cpuDemand[q], ramDemand[q]);
+				}
+				return null;
+			}
+
+			virtualNames[p] = virtual.name;
+			hosts[p] = host;
+			cpuDemand[p] = virtual.getCPU();
+			ramDemand[p] = virtual.getRAM();
+			position.put(virtual.name, p);
+			used[host] = true;
+		}
+
+		// link mapping
+		List<Reservation> reservations = new ArrayList<Reservation>();
+		for (int p = 0; p < k; p++) {
+			for (Edge edge : order.get(p).adjacencies) {
+				if (edge.getBandwidth() <= 0) {
+					continue; // a link without a bandwidth demand reserves nothing
+				}
+				int target = hosts[position.get(edge.getTargetVertex().name)];
+				Reservation link = links.admitIndex(hosts[p], target, edge.getBandwidth());
+				if (link == null) {
+					for (Reservation reservation : reservations) {
+						reservation.release();
+					}
+					for (int q = 0; q < k; q++) {
+						releaseHost(hosts[q], cpuDemand[q], ramDemand[q]);
+					}
+					return null;
+				}
+				reservations.add(link);
+			}
+		}
+
+		return new Embedding(this, virtualNames, hosts, cpuDemand, ramDemand, reservations);
+	}
+
+	// reserve the cheapest reachable candidate, -1 if none is left
+	private int choose(Vertex virtual, int[] candidateHosts, long[] costs) {
+		while (true) {
+			int best = -1;
+			for (int c = 0; c < candidateHosts.length; c++) { // ties keep the ranking order
+				if (costs[c] != Long.MAX_VALUE && (best == -1 || costs[c] < costs[best])) {
+					best = c;
+				}
+			}
+			if (best == -1) {
+				return -1;
+			}
+			if (reserveHost(candidateHosts[best], virtual.getCPU(), virtual.getRAM())) {
+				return candidateHosts[best];
+			}
+			costs[best] = Long.MAX_VALUE; // taken by a concurrent request
+		}
+	}
+
+	// get the next free substrate vertices in ranking order that have the CPU and RAM left
+	private int[] candidates(Vertex virtual, long incomingDemand, boolean[] used, int[] cursor) {
+		long outgoingDemand = 0; // bandwidth of the virtual links leaving the vertex
+		for (Edge edge : virtual.adjacencies) {
+			outgoingDemand += edge.getBandwidth();
+		}
+
+		int[] found = new int[candidates];
+		int count = 0;
+		for (; cursor[0] < ranking.length && count < candidates; cursor[0]++) {
+			int index = ranking[cursor[0]];
+			if (!used[index] && cpu.get(index) >= virtual.getCPU() && ram.get(index) >= virtual.getRAM()
+					&& residualOutgoing(index) >= outgoingDemand && residualIncoming(index) >= incomingDemand) {
+				found[count++] = index;
+			}
+		}
+		return count == candidates ? found : Arrays.copyOf(found, count);
+	}
+
+	// get the residual bandwidth of the edges leaving a substrate vertex
+	private long residualOutgoing(int index) {
+		LinkCapacity capacity = links.getCapacity();
+		long total = 0;
+		for (int e = substrate.offsets[index]; e < substrate.offsets[index + 1]; e++) {
+			total += capacity.getResidual(e);
+		}
+		return total;
+	}
+
+	// get the residual bandwidth of the edges entering a substrate vertex
+	private long residualIncoming(int index) {
+		LinkCapacity capacity = links.getCapacity();
+		long total = 0;
+		for (int i = incomingOffsets[index]; i < incomingOffsets[index + 1]; i++) {
+			total += capacity.getResidual(incomingEdges[i]);
+		}
+		return total;
+	}
+
+	// get the residual distance from every candidate to the hosts of the placed neighbours in parallel
+	private long[] evaluate(int[] candidateHosts, int[] linkHosts, int[] linkDemands, boolean[] outgoing,
+			int linkCount) {
+		if (linkCount == 0) {
+			return new long[candidateHosts.length]; // nothing to connect yet, keep the ranking order
+		}
+		return pool.submit(() -> IntStream.range(0, candidateHosts.length).parallel().mapToLong(c -> {
+			long cost = 0;
+			for (int l = 0; l < linkCount; l++) {
+				int distance = outgoing[l]
+						? links.residualDistance(candidateHosts[c], linkHosts[l], linkDemands[l])
+						: links.residualDistance(linkHosts[l], candidateHosts[c], linkDemands[l]);
+				if (distance == Integer.MAX_VALUE) {
+					return Long.MAX_VALUE;
+				}
+				cost += distance;
+			}
+			return cost;
+		}).toArray()).join();
+	}
+
+	// take CPU and RAM from a substrate vertex, false if not enough is left
+	private boolean reserveHost(int index, int cpuDemand, int ramDemand) {
+		if (!take(cpu, index, cpuDemand)) {
+			return false;
+		}
+		if (!take(ram, index, ramDemand)) {
+			cpu.addAndGet(index, cpuDemand);
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean take(AtomicIntegerArray residual, int index, int demand) {
+		while (true) {
+			int left = residual.get(index);
+			if (left < demand) {
+				return false;
+			}
+			if (residual.compareAndSet(index, left, left - demand)) {
+				return true;
+			}
+		}
+	}
+
+	// give CPU and RAM back to a substrate vertex
+	void releaseHost(int index, int cpuDemand, int ramDemand) {
+		cpu.addAndGet(index, cpuDemand);
+		ram.addAndGet(index, ramDemand);
+	}
+
+	// get the number of accepted requests
+	public long getAccepted() {
+		return accepted.get();
+	}
+
+	// get the number of rejected requests
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	// get the fraction of the requests that were accepted
+	public double getAcceptanceRatio() {
+		long total = accepted.get() + rejected.get();
+		return total == 0 ? 0 : (double) accepted.get() / total;
+	}
+
+	// get the requests handled per second of embedding time, summed over all threads
+	public double getEmbeddingsPerSecond() {
+		long nanos = embedNanos.get();
+		return nanos == 0 ? 0 : (accepted.get() + rejected.get()) * 1e9 / nanos;
+	}
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import java.util.Random;
+
+import algorithm.ALT;
+import algorithm.Dijkstra;
+import algorithm.PathResult;
+import algorithm.SearchState;
+import graph.CSRGraph;
+
+// Vertices settled by ALT compared with the full computePaths search and with the
+// Dijkstra that stops at the destination, for queries on two bandwidth tiers.
+// usage: ALTBenchmark [landmarks] [nodes...]
+public class ALTBenchmark {
+
+	private static final int QUERIES = 200;
+	private static final int[] BANDWIDTHS = { 0, 60 };
+
+	public static void main(String[] args) {
+
+		int landmarks = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int[] sizes = { 10000, 100000, 1000000 };
+		if (args.length > 1) {
+			sizes = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				sizes[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%10s %6s %10s %14s %14s %14s %10s %10s%n", "nodes", "bw", "prep(ms)", "full(settled)",
+				"early(settled)", "alt(settled)", "reduction", "alt(ms)");
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 4, 100, 100, 42);
+			Dijkstra dijkstra = new Dijkstra(graph);
+
+			long start = System.nanoTime();
+			ALT alt = new ALT(graph, landmarks, BANDWIDTHS);
+			alt.preprocess();
+			double preprocessing = (System.nanoTime() - start) / 1e6;
+
+			for (int bandwidth : BANDWIDTHS) {
+				Random random = new Random(7);
+				long fullSettled = 0;
+				long earlySettled = 0;
+				long altSettled = 0;
+				long altNanos = 0;
+
+				for (int q = 0; q < QUERIES; q++) {
+					int source = random.nextInt(n);
+					int destination = random.nextInt(n);
+
+					SearchState state = dijkstra.search(source, bandwidth); // computePaths
+					fullSettled += state.getSettledCount();
+					int distance = state.getDistance(destination);
+					earlySettled += dijkstra.search(source, bandwidth, destination).getSettledCount();
+
+					start = System.nanoTime();
+					PathResult result = alt.shortestPathIndex(source, destination, bandwidth);
+					altNanos += System.nanoTime() - start;
+					altSettled += result.getSettledCount();
+					if (result.getDistance() != distance) {
+						throw new IllegalStateException("Distance mismatch for query " + q);
+					}
+				}
+
+				System.out.printf("%10d %6d %10.1f %14d %14d %14d %10.1f %10.3f%n", n, bandwidth, preprocessing,
+						fullSettled / QUERIES, earlySettled / QUERIES, altSettled / QUERIES,
+						(double) fullSettled / Math.max(1, altSettled), altNanos / 1e6 / QUERIES);
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import algorithm.AdmissionControl;
+import algorithm.Reservation;
+import graph.CSRGraph;
+import graph.LinkCapacity;
+
+// Admission throughput of the lock-free reservation against the same admission
+// behind one global lock, from 1 thread up to the given maximum. Every thread
+// admits random demands and keeps a window of them, releasing the oldest one,
+// so the network stays loaded. Checks at the end that all capacity came back.
+// usage: AdmissionBenchmark [maxThreads] [nodes]
+public class AdmissionBenchmark {
+
+	private static final int REQUESTS_PER_THREAD = 20000;
+	private static final int WINDOW = 64;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final int MAX_WEIGHT = 100;
+	private static final int MAX_BANDWIDTH = 100;
+	private static final int MAX_DEMAND = 20;
+
+	public static void main(String[] args) throws InterruptedException {
+
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 2 * Runtime.getRuntime().availableProcessors();
+		int n = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		CSRGraph graph = SyntheticTopology.generate(n, 4, MAX_WEIGHT, MAX_BANDWIDTH, 42);
+
+		System.out.printf("%8s %8s %16s %16s %12s %10s%n", "threads", "mode", "admissions/s", "requests/s",
+				"accepted", "retries");
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			run(graph, threads, false);
+			run(graph, threads, true);
+		}
+	}
+
+	private static void run(CSRGraph graph, int threads, boolean globalLock) throws InterruptedException {
+		LinkCapacity capacity = new LinkCapacity(graph);
+		AdmissionControl control = new AdmissionControl(capacity, MAX_ATTEMPTS);
+		Object lock = new Object();
+		AtomicLong requests = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[threads];
+
+		for (int t = 0; t < threads; t++) {
+			long seed = 1000 + t;
+			workers[t] = new Thread(() -> {
+				Random random = new Random(seed);
+				ArrayDeque<Reservation> window = new ArrayDeque<>(WINDOW);
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int r = 0; r < REQUESTS_PER_THREAD; r++) {
+					int source = random.nextInt(graph.vertexCount());
+					int destination = random.nextInt(graph.vertexCount());
+					int demand = 1 + random.nextInt(MAX_DEMAND);
+					Reservation reservation;
+					if (globalLock) {
+						synchronized (lock) {
+							reservation = control.admit(source, destination, demand);
+						}
+					} else {
+						reservation = control.admit(source, destination, demand);
+					}
+					if (reservation != null) {
+						window.add(reservation);
+						if (window.size() > WINDOW) {
+							window.poll().release();
+						}
+					}
+				}
+				while (!window.isEmpty()) {
+					window.poll().release();
+				}
+				requests.addAndGet(REQUESTS_PER_THREAD);
+			});
+			workers[t].start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		double seconds = (System.nanoTime() - begin) / 1e9;
+
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			if (capacity.getResidual(e) != graph.bandwidths[e]) {
+				throw new IllegalStateException("Capacity of edge " + e + " was not restored");
+			}
+		}
+
+		long total = requests.get();
+		System.out.printf("%8d %8s %16.0f %16.0f %11.1f%% %10d%n", threads, globalLock ? "locked" : "cas",
+				control.getAdmitted() / seconds, total / seconds, 100.0 * control.getAdmitted() / total,
+				control.getRetries());
+	}
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import algorithm.Dijkstra;
+import algorithm.IndexedHeap;
+import graph.CSRGraph;
+
+// Compare Dijkstra over bandwidth-sorted rows, which stops at the first edge
+// below the threshold, with a search that visits and rejects every edge.
+// usage: BandwidthBenchmark [nodes] [averageDegree]
+public class BandwidthBenchmark {
+
+	private static final int QUERIES = 10;
+
+	public static void main(String[] args) {
+
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int degree = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		CSRGraph graph = SyntheticTopology.generate(n, degree, 10, 100, 42);
+		Dijkstra engine = new Dijkstra(graph);
+		int[] sources = new Random(7).ints(QUERIES, 0, n).toArray();
+
+		System.out.printf("%d nodes, %d edges, bandwidths 1..100%n", n, graph.edgeCount());
+		System.out.printf("%10s %14s %14s %10s%n", "threshold", "scanAll(ms)", "sorted(ms)", "speedup");
+
+		for (int threshold : new int[] { 0, 25, 50, 75, 90, 95, 99 }) {
+			double scanAll = timeScanAll(graph, sources, threshold);
+			double sorted = timeSorted(engine, sources, threshold);
+			System.out.printf("%10d %14.2f %14.2f %10.2f%n", threshold, scanAll, sorted, scanAll / sorted);
+		}
+	}
+
+	// average milliseconds per query of the sorted-row engine
+	private static double timeSorted(Dijkstra engine, int[] sources, int threshold) {
+		long total = 0;
+		for (int round = -1; round < sources.length; round++) { // round -1 warms up
+			long start = System.nanoTime();
+			engine.search(sources[Math.max(round, 0)], threshold);
+			if (round >= 0) {
+				total += System.nanoTime() - start;
+			}
+		}
+		return total / 1e6 / sources.length;
+	}
+
+	// average milliseconds per query when every edge is checked against the threshold
+	private static double timeScanAll(CSRGraph graph, int[] sources, int threshold) {
+		int n = graph.vertexCount();
+		int[] distance = new int[n];
+		IndexedHeap queue = new IndexedHeap(n);
+		long total = 0;
+		for (int round = -1; round < sources.length; round++) {
+			long start = System.nanoTime();
+			Arrays.fill(distance, Integer.MAX_VALUE);
+			int source = sources[Math.max(round, 0)];
+			distance[source] = 0;
+			queue.push(source, 0);
+			while (!queue.isEmpty()) {
+				int u = queue.poll();
+				for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+					if (graph.bandwidths[e] >= threshold && distance[u] + graph.weights[e] < distance[graph.targets[e]]) {
+						distance[graph.targets[e]] = distance[u] + graph.weights[e];
+						queue.push(graph.targets[e], distance[graph.targets[e]]);
+					}
+				}
+			}
+			if (round >= 0) {
+				total += System.nanoTime() - start;
+			}
+		}
+		return total / 1e6 / sources.length;
+	}
+}
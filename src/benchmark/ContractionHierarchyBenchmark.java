@@ -0,0 +1,103 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.BidirectionalDijkstra;
+import algorithm.ContractionHierarchy;
+import algorithm.ContractionHierarchyBuilder;
+import algorithm.ContractionHierarchyQuery;
+import algorithm.Dijkstra;
+import algorithm.PathResult;
+import graph.CSRGraph;
+
+// Preprocessing time of the contraction hierarchy for 1 to all threads, the time
+// to load it again from a file, and its query time and settled vertices against
+// the early-stopping and bidirectional Dijkstra. Grids contract well, random
+// topologies have no small separators and keep a large core.
+// usage: ContractionHierarchyBenchmark [grid|averageDegree] [nodes...]
+public class ContractionHierarchyBenchmark {
+
+	private static final int QUERIES = 1000;
+
+	public static void main(String[] args) throws IOException {
+
+		String shape = args.length > 0 ? args[0] : "grid";
+		int[] sizes = { 10000, 100000 };
+		if (args.length > 1) {
+			sizes = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				sizes[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+
+		for (int n : sizes) {
+			CSRGraph graph = shape.equals("grid") ? SyntheticTopology.generateGrid(n, 100, 100, 42)
+					: SyntheticTopology.generate(n, Integer.parseInt(shape), 100, 100, 42);
+			n = graph.vertexCount();
+
+			ContractionHierarchy hierarchy = null;
+			for (int step = 1;; step *= 2) { // 1, 2, 4, ... threads, ending with all of them
+				int threads = Math.min(step, maxThreads);
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				long start = System.nanoTime();
+				hierarchy = new ContractionHierarchyBuilder(pool, 50, 16).build(graph, 0);
+				System.out.printf("nodes %d, threads %d: preprocessing %.1f ms, %d shortcuts%n", n, threads,
+						(System.nanoTime() - start) / 1e6, hierarchy.shortcutCount());
+				pool.shutdown();
+				if (threads == maxThreads) {
+					break;
+				}
+			}
+
+			File file = File.createTempFile("hierarchy", ContractionHierarchy.EXTENSION);
+			file.deleteOnExit();
+			hierarchy.write(file.getPath());
+			long start = System.nanoTime();
+			hierarchy = ContractionHierarchy.read(file.getPath());
+			System.out.printf("nodes %d: loaded %d bytes in %.1f ms%n", n, file.length(),
+					(System.nanoTime() - start) / 1e6);
+
+			Dijkstra dijkstra = new Dijkstra(graph);
+			BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph);
+			ContractionHierarchyQuery query = new ContractionHierarchyQuery(hierarchy);
+			long[] settled = new long[3];
+			long[] nanos = new long[3];
+			for (int pass = 0; pass < 2; pass++) { // the first pass is a warm-up
+				Random random = new Random(7);
+				settled = new long[3];
+				nanos = new long[3];
+				for (int q = 0; q < QUERIES; q++) {
+					int source = random.nextInt(n);
+					int destination = random.nextInt(n);
+
+					start = System.nanoTime();
+					PathResult early = dijkstra.shortestPath(source, destination, 0);
+					nanos[0] += System.nanoTime() - start;
+					start = System.nanoTime();
+					PathResult both = bidirectional.shortestPath(source, destination, 0);
+					nanos[1] += System.nanoTime() - start;
+					start = System.nanoTime();
+					PathResult contracted = query.shortestPath(source, destination, 0);
+					nanos[2] += System.nanoTime() - start;
+
+					settled[0] += early.getSettledCount();
+					settled[1] += both.getSettledCount();
+					settled[2] += contracted.getSettledCount();
+					if (contracted.getDistance() != early.getDistance()) {
+						throw new IllegalStateException("Distance mismatch for query " + q);
+					}
+				}
+			}
+
+			System.out.printf("%10s %14s %12s%n", "engine", "settled", "query(us)");
+			String[] engines = { "dijkstra", "bidir", "ch" };
+			for (int i = 0; i < engines.length; i++) {
+				System.out.printf("%10s %14d %12.1f%n", engines[i], settled[i] / QUERIES, nanos[i] / 1e3 / QUERIES);
+			}
+		}
+	}
+}
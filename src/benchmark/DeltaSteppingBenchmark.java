@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.DeltaStepping;
+import algorithm.Dijkstra;
+import graph.CSRGraph;
+
+// Scaling of the delta-stepping engine with the number of threads and the graph
+// size, against the single-threaded indexed heap Dijkstra on the same sources.
+// usage: DeltaSteppingBenchmark [nodes...]
+public class DeltaSteppingBenchmark {
+
+	private static final int QUERIES = 5;
+
+	public static void main(String[] args) {
+
+		int[] sizes = { 100000, 1000000, 4000000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+
+		System.out.printf("%10s %10s %8s %8s %14s %14s %10s%n", "nodes", "edges", "delta", "threads", "dijkstra(ms)",
+				"delta(ms)", "speedup");
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 8, 100, 100, 42);
+			int[] sources = new Random(7).ints(QUERIES, 0, n).toArray();
+			int[] distance = new int[n];
+			int[] previous = new int[n];
+
+			Dijkstra dijkstra = new Dijkstra(graph);
+			dijkstra.computePaths(sources[0], 0, distance, previous); // warm-up
+			long start = System.nanoTime();
+			for (int source : sources) {
+				dijkstra.computePaths(source, 0, distance, previous);
+			}
+			double sequential = (System.nanoTime() - start) / 1e6 / QUERIES;
+
+			for (int step = 1;; step *= 2) { // 1, 2, 4, ... threads, ending with all of them
+				int threads = Math.min(step, maxThreads);
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				DeltaStepping deltaStepping = new DeltaStepping(graph, pool, DeltaStepping.defaultDelta(graph));
+				deltaStepping.computePaths(sources[0], 0, distance, previous); // warm-up
+				start = System.nanoTime();
+				for (int source : sources) {
+					deltaStepping.computePaths(source, 0, distance, previous);
+				}
+				double millis = (System.nanoTime() - start) / 1e6 / QUERIES;
+				pool.shutdown();
+
+				System.out.printf("%10d %10d %8d %8d %14.2f %14.2f %10.2f%n", n, graph.edgeCount(),
+						deltaStepping.getDelta(), threads, sequential, millis, sequential / millis);
+				if (threads == maxThreads) {
+					break;
+				}
+			}
+		}
+	}
+}
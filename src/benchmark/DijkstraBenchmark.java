@@ -0,0 +1,112 @@
+package benchmark;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import algorithm.Dijkstra;
+import algorithm.ShortestPath;
+import graph.CSRGraph;
+import graph.Edge;
+import graph.Vertex;
+
+// Compare the original PriorityQueue.remove() Dijkstra, the distance-ordered
+// Vertex queue and the indexed heap engine on random topologies.
+// usage: DijkstraBenchmark [sizes...], the legacy engine only runs up to 20k nodes
+public class DijkstraBenchmark {
+
+	private static final int LEGACY_LIMIT = 20000;
+	private static final int QUERIES = 5;
+
+	public static void main(String[] args) {
+
+		int[] sizes = { 10000, 100000, 1000000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%10s %10s %14s %14s %14s %14s%n", "nodes", "edges", "legacy(ms)", "vertexPQ(ms)",
+				"heap2(ms)", "heap4(ms)");
+
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 42);
+			List<Vertex> vertices = graph.toVertices();
+			int[] sources = new Random(7).ints(QUERIES, 0, n).toArray();
+
+			double legacy = Double.NaN;
+			if (n <= LEGACY_LIMIT) {
+				legacy = timeVertexQueries(vertices, sources, true);
+			}
+			double vertexQueue = timeVertexQueries(vertices, sources, false);
+			double heap2 = timeHeapQueries(new Dijkstra(graph, 2), sources);
+			double heap4 = timeHeapQueries(new Dijkstra(graph, 4), sources);
+
+			System.out.printf("%10d %10d %14.2f %14.2f %14.2f %14.2f%n", n, graph.edgeCount(), legacy, vertexQueue,
+					heap2, heap4);
+		}
+	}
+
+	// average milliseconds per query of the Vertex based engines
+	private static double timeVertexQueries(List<Vertex> vertices, int[] sources, boolean legacy) {
+		ShortestPath shortestPath = new ShortestPath();
+		long total = 0;
+		for (int round = -1; round < sources.length; round++) { // round -1 warms up
+			for (Vertex vertex : vertices) { // reset the results of the previous query
+				vertex.setMinDistance(Integer.MAX_VALUE);
+				vertex.setPreviousVertex(null);
+			}
+			Vertex source = vertices.get(sources[Math.max(round, 0)]);
+			long start = System.nanoTime();
+			if (legacy) {
+				legacyComputePaths(source, 0);
+			} else {
+				shortestPath.computePaths(source, 0);
+			}
+			if (round >= 0) {
+				total += System.nanoTime() - start;
+			}
+		}
+		return total / 1e6 / sources.length;
+	}
+
+	// average milliseconds per query of the indexed heap engine
+	private static double timeHeapQueries(Dijkstra engine, int[] sources) {
+		int n = engine.getGraph().vertexCount();
+		int[] distance = new int[n];
+		int[] previous = new int[n];
+		long total = 0;
+		for (int round = -1; round < sources.length; round++) {
+			long start = System.nanoTime();
+			engine.computePaths(sources[Math.max(round, 0)], 0, distance, previous);
+			if (round >= 0) {
+				total += System.nanoTime() - start;
+			}
+		}
+		return total / 1e6 / sources.length;
+	}
+
+	// the original computePaths: Vertex.compareTo ordering and a linear remove per update
+	private static void legacyComputePaths(Vertex sourceNode, int bandwidth) {
+		sourceNode.setMinDistance(0);
+		PriorityQueue<Vertex> vertexQueue = new PriorityQueue<Vertex>();
+		vertexQueue.add(sourceNode);
+		while (!vertexQueue.isEmpty()) {
+			Vertex currentNode = vertexQueue.poll();
+			for (Edge connectedEdge : currentNode.adjacencies) {
+				if (connectedEdge.getBandwidth() >= bandwidth) {
+					Vertex targetNode = connectedEdge.getTargetVertex();
+					int weightToCurrentNode = currentNode.getMinDistance() + connectedEdge.getEdgeWeight();
+					if (weightToCurrentNode < targetNode.getMinDistance()) {
+						vertexQueue.remove(targetNode);
+						targetNode.setMinDistance(weightToCurrentNode);
+						targetNode.setPreviousVertex(currentNode);
+						vertexQueue.add(targetNode);
+					}
+				}
+			}
+		}
+	}
+}
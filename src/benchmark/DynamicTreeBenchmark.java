@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.util.Random;
+
+import algorithm.Dijkstra;
+import algorithm.DynamicShortestPathTree;
+import algorithm.DynamicShortestPaths;
+import algorithm.SearchState;
+import graph.CSRGraph;
+import graph.DynamicGraph;
+
+// Cost of repairing the trees of the hot sources after random link changes
+// against recomputing them, with a final check that both give the same distances.
+// usage: DynamicTreeBenchmark [hotSources] [nodes...]
+public class DynamicTreeBenchmark {
+
+	private static final int UPDATES = 5000;
+	private static final int RECOMPUTE_SAMPLES = 20;
+	private static final int MAX_WEIGHT = 100;
+	private static final int MAX_BANDWIDTH = 100;
+
+	public static void main(String[] args) {
+
+		int hotSources = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		int[] sizes = { 10000, 100000, 1000000 };
+		if (args.length > 1) {
+			sizes = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				sizes[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%10s %6s %16s %18s %10s %16s%n", "nodes", "trees", "repair(us/upd)", "recompute(us/upd)",
+				"speedup", "repaired/upd");
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 4, MAX_WEIGHT, MAX_BANDWIDTH, 42);
+			DynamicGraph dynamic = new DynamicGraph(graph);
+			DynamicShortestPaths paths = new DynamicShortestPaths(dynamic, hotSources);
+			Random random = new Random(7);
+			int[] sources = new int[hotSources];
+			int[] bandwidths = new int[hotSources];
+			for (int i = 0; i < hotSources; i++) {
+				sources[i] = random.nextInt(n);
+				bandwidths[i] = random.nextInt(MAX_BANDWIDTH / 2);
+				paths.getTree(sources[i], bandwidths[i]);
+			}
+
+			long start = System.nanoTime();
+			for (int u = 0; u < UPDATES; u++) { // reservations change weights and free capacity
+				int edge = random.nextInt(dynamic.edgeCount());
+				dynamic.updateEdge(edge, 1 + random.nextInt(MAX_WEIGHT), 1 + random.nextInt(MAX_BANDWIDTH));
+			}
+			double repair = (System.nanoTime() - start) / 1e3 / UPDATES;
+
+			long repaired = 0;
+			for (DynamicShortestPathTree tree : paths.getTrees()) {
+				repaired += tree.getRepairedVertexCount();
+			}
+
+			start = System.nanoTime();
+			for (int s = 0; s < RECOMPUTE_SAMPLES; s++) { // snapshot and search every tree again
+				Dijkstra dijkstra = new Dijkstra(dynamic.snapshot());
+				for (int i = 0; i < hotSources; i++) {
+					dijkstra.search(sources[i], bandwidths[i]);
+				}
+			}
+			double recompute = (System.nanoTime() - start) / 1e3 / RECOMPUTE_SAMPLES;
+
+			Dijkstra dijkstra = new Dijkstra(dynamic.snapshot());
+			for (int i = 0; i < hotSources; i++) {
+				DynamicShortestPathTree tree = paths.getTree(sources[i], bandwidths[i]);
+				SearchState state = dijkstra.search(sources[i], bandwidths[i]);
+				for (int v = 0; v < n; v++) {
+					if (state.getDistance(v) != tree.getDistance(v)) {
+						throw new IllegalStateException("Repaired tree differs at vertex " + v);
+					}
+				}
+			}
+
+			System.out.printf("%10d %6d %16.2f %18.2f %10.1f %16.1f%n", n, hotSources, repair, recompute,
+					recompute / repair, (double) repaired / UPDATES);
+		}
+	}
+}
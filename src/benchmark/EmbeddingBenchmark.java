@@ -0,0 +1,95 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.Embedding;
+import algorithm.VirtualNetworkEmbedding;
+import file.readAllFiles;
+import graph.CSRGraph;
+
+// Acceptance ratio and embeddings per second of the virtual network embedding over
+// a directory of virtual request files, with 1 up to maxThreads workers evaluating
+// the candidates. Requests arrive in file order and the oldest accepted one leaves
+// once more than LIFETIME are active. Without a directory, random requests are
+// written to a temporary one. Checks at the end that releasing all embeddings
+// restores the substrate.
+// usage: EmbeddingBenchmark [maxThreads] [nodes] [directory]
+public class EmbeddingBenchmark {
+
+	private static final int REQUESTS = 500;
+	private static final int LIFETIME = 20; // accepted requests kept on the substrate
+	private static final int MIN_VIRTUAL_NODES = 3;
+	private static final int MAX_VIRTUAL_NODES = 10;
+	private static final int MAX_WEIGHT = 100;
+	private static final int MAX_BANDWIDTH = 100;
+	private static final int MAX_VIRTUAL_BANDWIDTH = 20;
+	private static final int MAX_VIRTUAL_RESOURCE = 30;
+
+	public static void main(String[] args) throws IOException {
+
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int n = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		String directory = args.length > 2 ? args[2] : writeRequests();
+		List<String> requests = readAllFiles.virtualFileName(directory);
+		CSRGraph substrate = SyntheticTopology.generate(n, 4, MAX_WEIGHT, MAX_BANDWIDTH, 42);
+
+		System.out.printf("%d virtual requests from %s on %d substrate nodes%n", requests.size(), directory, n);
+		System.out.printf("%8s %12s %16s %12s%n", "threads", "accepted", "embeddings/s", "avg cost");
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			VirtualNetworkEmbedding engine = new VirtualNetworkEmbedding(substrate, pool,
+					VirtualNetworkEmbedding.DEFAULT_CANDIDATES);
+			ArrayDeque<Embedding> active = new ArrayDeque<Embedding>(LIFETIME);
+
+			long cost = 0;
+			for (String request : requests) {
+				Embedding embedding = engine.embed(request);
+				if (embedding != null) {
+					cost += embedding.getCost();
+					active.add(embedding);
+					if (active.size() > LIFETIME) { // the oldest virtual network leaves
+						active.poll().release();
+					}
+				}
+			}
+			while (!active.isEmpty()) {
+				active.poll().release();
+			}
+			for (int i = 0; i < n; i++) {
+				if (engine.getResidualCPU(i) != substrate.cpu[i] || engine.getResidualRAM(i) != substrate.ram[i]) {
+					throw new IllegalStateException("Resources of vertex " + i + " were not restored");
+				}
+			}
+			for (int e = 0; e < substrate.edgeCount(); e++) {
+				if (engine.getLinks().getCapacity().getResidual(e) != substrate.bandwidths[e]) {
+					throw new IllegalStateException("Capacity of edge " + e + " was not restored");
+				}
+			}
+			pool.shutdown();
+
+			System.out.printf("%8d %11.1f%% %16.1f %12.1f%n", threads, 100 * engine.getAcceptanceRatio(),
+					engine.getEmbeddingsPerSecond(), (double) cost / Math.max(1, engine.getAccepted()));
+		}
+	}
+
+	// write random virtual requests into a temporary directory
+	private static String writeRequests() throws IOException {
+		File directory = Files.createTempDirectory("virtual-requests").toFile();
+		directory.deleteOnExit();
+		Random random = new Random(7);
+		for (int r = 0; r < REQUESTS; r++) {
+			int size = MIN_VIRTUAL_NODES + random.nextInt(MAX_VIRTUAL_NODES - MIN_VIRTUAL_NODES + 1);
+			File file = new File(directory, String.format("virtual%04d.txt", r));
+			file.deleteOnExit();
+			SyntheticTopology.writeSubstrate(SyntheticTopology.generateVirtual(size, MAX_VIRTUAL_BANDWIDTH,
+					MAX_VIRTUAL_RESOURCE, random.nextLong()), file.getPath());
+		}
+		return directory.getPath();
+	}
+}
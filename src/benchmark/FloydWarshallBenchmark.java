@@ -0,0 +1,62 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.BlockedFloydWarshall;
+import algorithm.FloydWarshall;
+import graph.CSRGraph;
+
+// Scaling of the blocked Floyd-Warshall from 1 to all available threads, with the
+// original int[][] triple loop as baseline (only up to 1500 nodes).
+// usage: FloydWarshallBenchmark [nodes...]
+public class FloydWarshallBenchmark {
+
+	private static final int LEGACY_LIMIT = 1500;
+	private static final int BLOCK_SIZE = 64;
+
+	public static void main(String[] args) {
+
+		int[] sizes = { 500, 1000, 2000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+
+		System.out.printf("%8s %8s %12s %12s %10s%n", "nodes", "threads", "blocked(ms)", "legacy(ms)", "speedup");
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 8, 10, 100, 42);
+
+			double legacy = Double.NaN;
+			if (n <= LEGACY_LIMIT) {
+				FloydWarshall floydWarshall = new FloydWarshall();
+				floydWarshall.findShortestPath(graph, 0, n - 1, 0); // warm-up
+				long start = System.nanoTime();
+				floydWarshall.findShortestPath(graph, 0, n - 1, 0);
+				legacy = (System.nanoTime() - start) / 1e6;
+			}
+
+			double single = Double.NaN;
+			for (int step = 1;; step *= 2) { // 1, 2, 4, ... threads, ending with all of them
+				int threads = Math.min(step, maxThreads);
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				BlockedFloydWarshall blocked = new BlockedFloydWarshall(pool, BLOCK_SIZE);
+				blocked.compute(graph, 0); // warm-up
+				long start = System.nanoTime();
+				blocked.compute(graph, 0);
+				double millis = (System.nanoTime() - start) / 1e6;
+				pool.shutdown();
+
+				if (threads == 1) {
+					single = millis;
+				}
+				System.out.printf("%8d %8d %12.1f %12.1f %10.2f%n", n, threads, millis, legacy, single / millis);
+				if (threads == maxThreads) {
+					break;
+				}
+			}
+		}
+	}
+}
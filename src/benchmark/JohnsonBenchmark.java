@@ -0,0 +1,62 @@
+package benchmark;
+
+import algorithm.BlockedFloydWarshall;
+import algorithm.Johnson;
+import graph.CSRGraph;
+
+// All-pairs time of Johnson's algorithm against the blocked Floyd-Warshall as the
+// average out-degree grows, both on the common pool. Marks the density from which
+// Floyd-Warshall is faster, and checks that both give the same distances.
+// usage: JohnsonBenchmark [nodes] [maxDegree]
+public class JohnsonBenchmark {
+
+	public static void main(String[] args) {
+
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int maxDegree = args.length > 1 ? Integer.parseInt(args[1]) : n - 1;
+
+		Johnson johnson = new Johnson();
+		BlockedFloydWarshall floydWarshall = new BlockedFloydWarshall();
+		floydWarshall.compute(SyntheticTopology.generate(n, 4, 10, 100, 1), 0); // warm-up
+		johnson.compute(SyntheticTopology.generate(n, 4, 10, 100, 1), 0);
+
+		System.out.printf("%8s %8s %10s %12s %12s %8s%n", "nodes", "degree", "density", "johnson(ms)",
+				"blocked(ms)", "faster");
+		int crossover = -1;
+		int lastDegree = 0;
+		for (int degree = 2; degree <= maxDegree; degree *= 2) {
+			CSRGraph graph = SyntheticTopology.generate(n, degree, 10, 100, 42);
+
+			long start = System.nanoTime();
+			johnson.compute(graph, 0);
+			double johnsonMillis = (System.nanoTime() - start) / 1e6;
+
+			start = System.nanoTime();
+			floydWarshall.compute(graph, 0);
+			double blockedMillis = (System.nanoTime() - start) / 1e6;
+
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					if (i != j && johnson.getDistance(i, j) != floydWarshall.getDistance(i, j)) {
+						throw new IllegalStateException("Distances differ from " + i + " to " + j);
+					}
+				}
+			}
+
+			lastDegree = degree;
+			boolean johnsonFaster = johnsonMillis < blockedMillis;
+			if (!johnsonFaster && crossover == -1) {
+				crossover = degree;
+			}
+			System.out.printf("%8d %8d %10.4f %12.1f %12.1f %8s%n", n, degree,
+					(double) graph.edgeCount() / ((long) n * (n - 1)), johnsonMillis, blockedMillis,
+					johnsonFaster ? "johnson" : "blocked");
+		}
+
+		if (crossover == -1) {
+			System.out.println("Johnson is faster up to degree " + lastDegree);
+		} else {
+			System.out.println("Floyd-Warshall overtakes Johnson from degree " + crossover);
+		}
+	}
+}
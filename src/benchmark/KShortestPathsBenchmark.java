@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import algorithm.KShortestPaths;
+import algorithm.PathResult;
+import graph.CSRGraph;
+
+// Time to draw the first K loopless paths from the lazy generator for K = 1..32 on
+// random pairs, with the distance of the K-th path relative to the shortest one.
+// The time for K includes building the shortest-path tree of the destination.
+// usage: KShortestPathsBenchmark [nodes...]
+public class KShortestPathsBenchmark {
+
+	private static final int QUERIES = 20;
+	private static final int MAX_K = 32;
+	private static final int BANDWIDTH = 20;
+
+	public static void main(String[] args) {
+
+		int[] sizes = { 10000, 100000, 1000000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%10s %4s %12s %12s %10s%n", "nodes", "K", "ms/query", "stretch", "found");
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 42);
+			KShortestPaths engine = new KShortestPaths(graph);
+			Random random = new Random(7);
+			int[] sources = random.ints(QUERIES, 0, n).toArray();
+			int[] destinations = random.ints(QUERIES, 0, n).toArray();
+
+			for (int pass = 0; pass < 2; pass++) { // the first pass is a warm-up
+				long[] nanos = new long[MAX_K + 1]; // time until the K-th path was drawn
+				double[] stretch = new double[MAX_K + 1];
+				int[] found = new int[MAX_K + 1];
+
+				for (int q = 0; q < QUERIES; q++) {
+					long start = System.nanoTime();
+					Iterator<PathResult> paths = engine.paths(graph.getName(sources[q]),
+							graph.getName(destinations[q]), BANDWIDTH);
+					int shortest = 0;
+					for (int k = 1; k <= MAX_K && paths.hasNext(); k++) {
+						PathResult path = paths.next();
+						nanos[k] += System.nanoTime() - start;
+						if (k == 1) {
+							shortest = Math.max(1, path.getDistance());
+						}
+						stretch[k] += (double) path.getDistance() / shortest;
+						found[k]++;
+					}
+				}
+
+				if (pass == 1) {
+					for (int k = 1; k <= MAX_K; k *= 2) {
+						System.out.printf("%10d %4d %12.2f %12.3f %10d%n", n, k,
+								nanos[k] / 1e6 / Math.max(1, found[k]), stretch[k] / Math.max(1, found[k]),
+								found[k]);
+					}
+				}
+			}
+		}
+	}
+}
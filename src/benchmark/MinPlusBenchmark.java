@@ -0,0 +1,51 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import algorithm.BlockedFloydWarshall;
+import algorithm.MinPlusKernel;
+import graph.CSRGraph;
+
+// Compare the scalar and the jdk.incubator.vector min-plus kernels in the blocked
+// Floyd-Warshall on one thread. Run with --add-modules jdk.incubator.vector and
+// the src-vector classes on the class path to include the vector kernel.
+// usage: MinPlusBenchmark [nodes...]
+public class MinPlusBenchmark {
+
+	public static void main(String[] args) {
+
+		int[] sizes = { 512, 1024, 2048 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		MinPlusKernel vector = MinPlusKernel.vector();
+		System.out.println("vector kernel: " + (vector == null ? "not available" : vector.getName()) + ", "
+				+ System.getProperty("os.arch"));
+		System.out.printf("%8s %12s %12s %10s%n", "nodes", "scalar(ms)", "vector(ms)", "speedup");
+
+		ForkJoinPool pool = new ForkJoinPool(1);
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 8, 10, 100, 42);
+			double scalar = time(new BlockedFloydWarshall(pool, 128, MinPlusKernel.scalar()), graph);
+			double vectorTime = vector == null ? Double.NaN : time(new BlockedFloydWarshall(pool, 128, vector), graph);
+			System.out.printf("%8d %12.1f %12.1f %10.2f%n", n, scalar, vectorTime, scalar / vectorTime);
+		}
+		pool.shutdown();
+	}
+
+	// best of three runs in milliseconds after one warm-up run
+	private static double time(BlockedFloydWarshall engine, CSRGraph graph) {
+		engine.compute(graph, 0);
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			long start = System.nanoTime();
+			engine.compute(graph, 0);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
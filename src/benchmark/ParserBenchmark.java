@@ -0,0 +1,105 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import file.FileSystem;
+import file.SubstrateParser;
+import file.SubstrateVisitor;
+
+// Measure the parsing throughput of substrate files in MB/s: the raw single-pass
+// parser, the full FileSystem load into matrices and the original readLine/split
+// parser (only up to 2000 nodes). An existing file can be given as the only argument,
+// otherwise random substrates of 500..8000 nodes are generated in the temp directory.
+public class ParserBenchmark {
+
+	private static final int LEGACY_LIMIT = 2000;
+
+	public static void main(String[] args) throws IOException {
+
+		System.out.printf("%10s %10s %14s %14s %14s%n", "nodes", "MB", "parser(MB/s)", "matrix(MB/s)",
+				"legacy(MB/s)");
+
+		if (args.length > 0) {
+			run(args[0], Integer.MAX_VALUE);
+			return;
+		}
+
+		for (int n : new int[] { 500, 2000, 8000 }) {
+			File file = File.createTempFile("substrateBenchmark", ".txt");
+			file.deleteOnExit();
+			SyntheticTopology.writeSubstrate(SyntheticTopology.generate(n, 42), file.getPath());
+			run(file.getPath(), n);
+			file.delete();
+		}
+	}
+
+	private static void run(String fileName, int n) throws IOException {
+		double megabytes = new File(fileName).length() / (1024.0 * 1024.0);
+		CountingVisitor counter = new CountingVisitor();
+
+		double parser = megabytes / time(() -> new SubstrateParser().parse(fileName, counter));
+		double matrix = megabytes / time(() -> new FileSystem(fileName));
+		double legacy = Double.NaN;
+		if (n <= LEGACY_LIMIT) {
+			legacy = megabytes / time(() -> legacyParse(fileName));
+		}
+
+		System.out.printf("%10d %10.1f %14.1f %14.1f %14.1f%n", counter.numVertices, megabytes, parser, matrix,
+				legacy);
+	}
+
+	// best of three runs in seconds after one warm-up run
+	private static double time(IORunnable task) throws IOException {
+		task.run();
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			long start = System.nanoTime();
+			task.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e9;
+	}
+
+	// the original parser: all lines as strings, split and Integer.valueOf per cell, one pass per matrix
+	private static void legacyParse(String fileName) throws IOException {
+		List<String> fileRows = new ArrayList<String>(Files.readAllLines(Paths.get(fileName)));
+		int rows = fileRows.size() / 3;
+		for (int type = 0; type < 3; type++) {
+			int start = type == 0 ? 0 : type * fileRows.size() / 3 + 1;
+			int[][] matrix = new int[rows][type == 2 ? 2 : rows];
+			for (int i = start; i < start + rows && i < fileRows.size(); i++) {
+				if (fileRows.get(i).length() != 0) {
+					String[] row = fileRows.get(i).split(":");
+					for (int j = 0; j < row.length; j++) {
+						matrix[i - start][j] = Integer.valueOf(row[j]);
+					}
+				}
+			}
+		}
+	}
+
+	private interface IORunnable {
+		void run() throws IOException;
+	}
+
+	// visitor that only counts cells, so the raw parsing speed is measured
+	private static class CountingVisitor implements SubstrateVisitor {
+		private int numVertices;
+		private long cells;
+
+		@Override
+		public void dimension(int numVertices) {
+			this.numVertices = numVertices;
+		}
+
+		@Override
+		public void cell(int section, int row, int column, int value) {
+			cells += value;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.util.Random;
+
+import algorithm.BidirectionalDijkstra;
+import algorithm.Dijkstra;
+import algorithm.PathResult;
+import algorithm.SearchState;
+import graph.CSRGraph;
+
+// Settled vertices and query time of the full single-source search, the search
+// that stops at the destination and the bidirectional search, on random pairs.
+// usage: PointToPointBenchmark [nodes...]
+public class PointToPointBenchmark {
+
+	private static final int QUERIES = 200;
+
+	public static void main(String[] args) {
+
+		int[] sizes = { 10000, 100000, 1000000 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		System.out.printf("%10s %14s %12s %14s %12s %14s %12s%n", "nodes", "full(settled)", "full(ms)",
+				"early(settled)", "early(ms)", "bidir(settled)", "bidir(ms)");
+		for (int n : sizes) {
+			CSRGraph graph = SyntheticTopology.generate(n, 42);
+			Random random = new Random(7);
+			int[] sources = random.ints(QUERIES, 0, n).toArray();
+			int[] destinations = random.ints(QUERIES, 0, n).toArray();
+			Dijkstra dijkstra = new Dijkstra(graph);
+			BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph);
+
+			for (int pass = 0; pass < 2; pass++) { // the first pass is a warm-up
+				long fullSettled = 0;
+				long earlySettled = 0;
+				long bidirectionalSettled = 0;
+				long fullNanos = 0;
+				long earlyNanos = 0;
+				long bidirectionalNanos = 0;
+
+				for (int q = 0; q < QUERIES; q++) {
+					long start = System.nanoTime();
+					SearchState state = dijkstra.search(sources[q], 0);
+					fullNanos += System.nanoTime() - start;
+					fullSettled += state.getSettledCount();
+					int fullDistance = state.getDistance(destinations[q]); // the state is reused below
+
+					start = System.nanoTime();
+					PathResult early = dijkstra.shortestPath(graph.getName(sources[q]),
+							graph.getName(destinations[q]), 0);
+					earlyNanos += System.nanoTime() - start;
+					earlySettled += early.getSettledCount();
+
+					start = System.nanoTime();
+					PathResult both = bidirectional.shortestPathIndex(sources[q], destinations[q], 0);
+					bidirectionalNanos += System.nanoTime() - start;
+					bidirectionalSettled += both.getSettledCount();
+
+					if (early.getDistance() != fullDistance || both.getDistance() != fullDistance) {
+						throw new IllegalStateException("Distance mismatch for query " + q);
+					}
+				}
+
+				if (pass == 1) {
+					System.out.printf("%10d %14d %12.3f %14d %12.3f %14d %12.3f%n", n, fullSettled / QUERIES,
+							fullNanos / 1e6 / QUERIES, earlySettled / QUERIES, earlyNanos / 1e6 / QUERIES,
+							bidirectionalSettled / QUERIES, bidirectionalNanos / 1e6 / QUERIES);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import graph.CSRGraph;
+
+// Random substrate topologies for the benchmark drivers. Every topology contains a
+// bidirectional ring so that all vertices are reachable, plus random extra links.
+public class SyntheticTopology {
+
+	// generate a topology with the given average out-degree
+	public static CSRGraph generate(int numVertices, int averageDegree, int maxWeight, int maxBandwidth, long seed) {
+
+		Random random = new Random(seed);
+		int numEdges = numVertices * Math.max(averageDegree, 2);
+		int[] sources = new int[numEdges];
+		int[] targets = new int[numEdges];
+		int edge = 0;
+
+		for (int i = 0; i < numVertices; i++) { // ring links in both directions
+			sources[edge] = i;
+			targets[edge++] = (i + 1) % numVertices;
+			sources[edge] = (i + 1) % numVertices;
+			targets[edge++] = i;
+		}
+		while (edge < numEdges) { // random extra links
+			int source = random.nextInt(numVertices);
+			int target = random.nextInt(numVertices);
+			if (source != target) {
+				sources[edge] = source;
+				targets[edge++] = target;
+			}
+		}
+
+		int[] weights = new int[numEdges];
+		int[] bandwidths = new int[numEdges];
+		for (int e = 0; e < numEdges; e++) {
+			weights[e] = 1 + random.nextInt(maxWeight);
+			bandwidths[e] = 1 + random.nextInt(maxBandwidth);
+		}
+
+		int[] cpu = new int[numVertices];
+		int[] ram = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			cpu[i] = 1 + random.nextInt(100);
+			ram[i] = 1 + random.nextInt(100);
+		}
+
+		return CSRGraph.fromEdges(numVertices, numEdges, sources, targets, weights, bandwidths, cpu, ram);
+	}
+
+	// generate a topology with average out-degree 4, weights 1..10 and bandwidths 1..100
+	public static CSRGraph generate(int numVertices, long seed) {
+		return generate(numVertices, 4, 10, 100, seed);
+	}
+
+	// generate a square grid of about numVertices vertices with links to the four
+	// neighbours in both directions, a planar topology with small separators
+	public static CSRGraph generateGrid(int numVertices, int maxWeight, int maxBandwidth, long seed) {
+
+		Random random = new Random(seed);
+		int side = Math.max(2, (int) Math.round(Math.sqrt(numVertices)));
+		int n = side * side;
+		int numEdges = 4 * side * (side - 1);
+		int[] sources = new int[numEdges];
+		int[] targets = new int[numEdges];
+		int[] weights = new int[numEdges];
+		int[] bandwidths = new int[numEdges];
+		int edge = 0;
+
+		for (int i = 0; i < n; i++) {
+			int right = i % side + 1 < side ? i + 1 : -1;
+			int down = i + side < n ? i + side : -1;
+			for (int neighbour : new int[] { right, down }) {
+				if (neighbour == -1) {
+					continue;
+				}
+				int weight = 1 + random.nextInt(maxWeight);
+				int bandwidth = 1 + random.nextInt(maxBandwidth);
+				sources[edge] = i; // both directions share weight and bandwidth
+				targets[edge] = neighbour;
+				weights[edge] = weight;
+				bandwidths[edge++] = bandwidth;
+				sources[edge] = neighbour;
+				targets[edge] = i;
+				weights[edge] = weight;
+				bandwidths[edge++] = bandwidth;
+			}
+		}
+
+		int[] cpu = new int[n];
+		int[] ram = new int[n];
+		for (int i = 0; i < n; i++) {
+			cpu[i] = 1 + random.nextInt(100);
+			ram[i] = 1 + random.nextInt(100);
+		}
+
+		return CSRGraph.fromEdges(n, numEdges, sources, targets, weights, bandwidths, cpu, ram);
+	}
+
+	// generate a small virtual network request: a bidirectional ring plus one random
+	// chord in both directions when the ring has more than three vertices, with link and vertex demands up to the given maxima
+	public static CSRGraph generateVirtual(int numVertices, int maxBandwidth, int maxResource, long seed) {
+
+		Random random = new Random(seed);
+		int numEdges = 2 * numVertices + (numVertices > 3 ? 2 : 0);
+		int[] sources = new int[numEdges];
+		int[] targets = new int[numEdges];
+		int edge = 0;
+
+		for (int i = 0; i < numVertices; i++) { // ring links in both directions
+			sources[edge] = i;
+			targets[edge++] = (i + 1) % numVertices;
+			sources[edge] = (i + 1) % numVertices;
+			targets[edge++] = i;
+		}
+		if (edge < numEdges) {
+			int source = random.nextInt(numVertices);
+			int target = (source + 2) % numVertices; // skip the ring neighbour
+			sources[edge] = source;
+			targets[edge++] = target;
+			sources[edge] = target;
+			targets[edge++] = source;
+		}
+
+		int[] weights = new int[numEdges];
+		int[] bandwidths = new int[numEdges];
+		for (int e = 0; e < numEdges; e += 2) { // the same demand in both directions
+			weights[e] = weights[e + 1] = 1;
+			bandwidths[e] = bandwidths[e + 1] = 1 + random.nextInt(maxBandwidth);
+		}
+
+		int[] cpu = new int[numVertices];
+		int[] ram = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			cpu[i] = 1 + random.nextInt(maxResource);
+			ram[i] = 1 + random.nextInt(maxResource);
+		}
+
+		return CSRGraph.fromEdges(numVertices, numEdges, sources, targets, weights, bandwidths, cpu, ram);
+	}
+
+	// write a topology in the colon-separated substrate format, one row at a time
+	public static void writeSubstrate(CSRGraph graph, String fileName) throws IOException {
+
+		int n = graph.vertexCount();
+		int[] row = new int[n];
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName), 1 << 16)) {
+			for (int section = 0; section < 2; section++) { // adjacency, then bandwidth
+				for (int i = 0; i < n; i++) {
+					Arrays.fill(row, 0);
+					for (int e = graph.offsets[i]; e < graph.offsets[i + 1]; e++) {
+						row[graph.targets[e]] = section == 0 ? graph.weights[e] : graph.bandwidths[e];
+					}
+					for (int j = 0; j < n; j++) {
+						if (j > 0) {
+							writer.write(':');
+						}
+						writer.write(Integer.toString(row[j]));
+					}
+					writer.newLine();
+				}
+				writer.newLine();
+			}
+			for (int i = 0; i < n; i++) {
+				writer.write(graph.cpu[i] + ":" + graph.ram[i]);
+				writer.newLine();
+			}
+		}
+	}
+}
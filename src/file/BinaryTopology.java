@@ -0,0 +1,216 @@
+package file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import graph.CSRGraph;
+
+// Binary topology file that is memory-mapped instead of parsed. The file holds a
+// header followed by the CSR arrays of a CSRGraph as little-endian ints:
+//
+//   magic, version, numVertices, numEdges
+//   offsets[numVertices + 1], targets[numEdges], weights[numEdges],
+//   bandwidths[numEdges], cpu[numVertices], ram[numVertices], names[numVertices]
+//
+// Opening a file only reads the header and maps the arrays, the IntBuffer views
+// read straight from the page cache. The routing engines work on heap arrays, so
+// toGraph() still copies every array once; the load is a sequential bulk copy
+// without any parsing, but it stays linear in the size of the file.
+public class BinaryTopology {
+
+	public static final String EXTENSION = ".csr";
+
+	private static final int MAGIC = 0x43535254; // "CSRT"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 16;
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final String fileName;
+	private final int numVertices;
+	private final int numEdges;
+	private final IntBuffer offsets;
+	private final IntBuffer targets;
+	private final IntBuffer weights;
+	private final IntBuffer bandwidths;
+	private final IntBuffer cpu;
+	private final IntBuffer ram;
+	private final IntBuffer names;
+
+	private BinaryTopology(String fileName, FileChannel channel, int numVertices, int numEdges) throws IOException {
+		this.fileName = fileName;
+		this.numVertices = numVertices;
+		this.numEdges = numEdges;
+
+		long position = HEADER_BYTES;
+		this.offsets = map(channel, position, numVertices + 1);
+		position += 4L * (numVertices + 1);
+		this.targets = map(channel, position, numEdges);
+		position += 4L * numEdges;
+		this.weights = map(channel, position, numEdges);
+		position += 4L * numEdges;
+		this.bandwidths = map(channel, position, numEdges);
+		position += 4L * numEdges;
+		this.cpu = map(channel, position, numVertices);
+		position += 4L * numVertices;
+		this.ram = map(channel, position, numVertices);
+		position += 4L * numVertices;
+		this.names = map(channel, position, numVertices);
+	}
+
+	// map the header and arrays of a binary topology file
+	public static BinaryTopology open(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining() && channel.read(header) != -1) {
+				// read the complete header
+			}
+			header.flip();
+			if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+				throw new IOException("Not a binary topology file '" + fileName + "'");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported binary topology version " + version + " in '" + fileName + "'");
+			}
+			int numVertices = header.getInt();
+			int numEdges = header.getInt();
+
+			long expected = HEADER_BYTES + 4L * (numVertices + 1) + 4L * 3 * numEdges + 4L * 3 * numVertices;
+			if (channel.size() < expected) {
+				throw new IOException("Truncated binary topology file '" + fileName + "'");
+			}
+			return new BinaryTopology(fileName, channel, numVertices, numEdges);
+		}
+	}
+
+	// check whether a file starts with the binary topology header
+	public static boolean isBinary(String fileName) {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while (magic.hasRemaining() && channel.read(magic) != -1) {
+				// read the magic number
+			}
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		} catch (IOException ex) {
+			return false;
+		}
+	}
+
+	// export a loaded topology into a binary topology file
+	public static void write(CSRGraph graph, String fileName) throws IOException {
+		int numVertices = graph.vertexCount();
+		int[] names = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			names[i] = graph.getName(i);
+		}
+
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(numVertices).putInt(graph.edgeCount());
+			writeInts(channel, buffer, graph.offsets);
+			writeInts(channel, buffer, graph.targets);
+			writeInts(channel, buffer, graph.weights);
+			writeInts(channel, buffer, graph.bandwidths);
+			writeInts(channel, buffer, graph.cpu);
+			writeInts(channel, buffer, graph.ram);
+			writeInts(channel, buffer, names);
+			flush(channel, buffer);
+		}
+	}
+
+	// copy the mapped arrays into a CSR snapshot for the routing engines, one bulk
+	// copy per array; the rows were sorted when the file was written, so the
+	// snapshot takes the copies as they are
+	public CSRGraph toGraph() {
+		return new CSRGraph(toArray(offsets), toArray(targets), toArray(weights), toArray(bandwidths), toArray(cpu),
+				toArray(ram), toArray(names));
+	}
+
+	// get the name of the mapped file
+	public String getFileName() {
+		return fileName;
+	}
+
+	// get the number of vertices
+	public int vertexCount() {
+		return numVertices;
+	}
+
+	// get the number of edges
+	public int edgeCount() {
+		return numEdges;
+	}
+
+	// get a read-only view of the row offsets
+	public IntBuffer getOffsets() {
+		return offsets.duplicate();
+	}
+
+	// get a read-only view of the edge targets
+	public IntBuffer getTargets() {
+		return targets.duplicate();
+	}
+
+	// get a read-only view of the edge weights
+	public IntBuffer getWeights() {
+		return weights.duplicate();
+	}
+
+	// get a read-only view of the edge bandwidths
+	public IntBuffer getBandwidths() {
+		return bandwidths.duplicate();
+	}
+
+	// get a read-only view of the vertex CPU capacities
+	public IntBuffer getCPU() {
+		return cpu.duplicate();
+	}
+
+	// get a read-only view of the vertex RAM capacities
+	public IntBuffer getRAM() {
+		return ram.duplicate();
+	}
+
+	// get a read-only view of the vertex names
+	public IntBuffer getNames() {
+		return names.duplicate();
+	}
+
+	private static IntBuffer map(FileChannel channel, long position, int length) throws IOException {
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * length).order(ByteOrder.LITTLE_ENDIAN)
+				.asIntBuffer();
+	}
+
+	private static int[] toArray(IntBuffer view) {
+		int[] array = new int[view.capacity()];
+		view.duplicate().get(array); // bulk copy out of the mapping
+		return array;
+	}
+
+	private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+		int written = 0;
+		while (written < values.length) {
+			if (buffer.remaining() < 4) {
+				flush(channel, buffer);
+			}
+			int count = Math.min(values.length - written, buffer.remaining() / 4);
+			buffer.asIntBuffer().put(values, written, count);
+			buffer.position(buffer.position() + 4 * count);
+			written += count;
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
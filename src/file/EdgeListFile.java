@@ -0,0 +1,237 @@
+package file;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+import graph.CSRGraph;
+
+// Sparse topology format that stores one line per vertex and per edge instead of
+// N x N matrices. Loading and converting stream in O(V + E) time and memory.
+//
+//   nodes <N>
+//   <cpu>:<ram>                          one line per vertex 0 .. N - 1
+//   edges <E>
+//   <source>:<target>:<weight>:<bandwidth>   one line per directed edge
+//
+// Lines starting with '#' and blank lines are ignored. The edge count is only a
+// size hint, the edge section ends at the end of the file.
+public class EdgeListFile {
+
+	public static final String EXTENSION = ".edges";
+
+	private static final String NODES = "nodes";
+	private static final String EDGES = "edges";
+
+	// load an edge list file into a CSR snapshot
+	public static CSRGraph read(String fileName) throws IOException {
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(fileName), 1 << 16)) {
+
+			int[] cells = new int[4];
+			String line = nextLine(reader);
+			if (line == null || !line.startsWith(NODES)) {
+				throw new IOException("Missing '" + NODES + "' header in file '" + fileName + "'");
+			}
+			int numVertices = Integer.parseInt(line.substring(NODES.length()).trim());
+
+			int[] cpu = new int[numVertices];
+			int[] ram = new int[numVertices];
+			for (int i = 0; i < numVertices; i++) { // vertex section
+				line = nextLine(reader);
+				if (line == null || parseCells(line, cells) != 2) {
+					throw new IOException("Expected " + numVertices + " vertex lines in file '" + fileName + "'");
+				}
+				cpu[i] = cells[0];
+				ram[i] = cells[1];
+			}
+
+			line = nextLine(reader);
+			int capacity = 16;
+			if (line != null) {
+				if (!line.startsWith(EDGES)) {
+					throw new IOException("Missing '" + EDGES + "' header in file '" + fileName + "'");
+				}
+				capacity = Math.max(capacity, Integer.parseInt(line.substring(EDGES.length()).trim()));
+			}
+
+			int[] sources = new int[capacity];
+			int[] targets = new int[capacity];
+			int[] weights = new int[capacity];
+			int[] bandwidths = new int[capacity];
+			int numEdges = 0;
+			while ((line = nextLine(reader)) != null) { // edge section
+				if (parseCells(line, cells) != 4 || cells[0] < 0 || cells[0] >= numVertices || cells[1] < 0
+						|| cells[1] >= numVertices) {
+					throw new IOException("Invalid edge '" + line + "' in file '" + fileName + "'");
+				}
+				if (numEdges == sources.length) {
+					int grown = numEdges * 2;
+					sources = Arrays.copyOf(sources, grown);
+					targets = Arrays.copyOf(targets, grown);
+					weights = Arrays.copyOf(weights, grown);
+					bandwidths = Arrays.copyOf(bandwidths, grown);
+				}
+				sources[numEdges] = cells[0];
+				targets[numEdges] = cells[1];
+				weights[numEdges] = cells[2];
+				bandwidths[numEdges] = cells[3];
+				numEdges++;
+			}
+
+			return CSRGraph.fromEdges(numVertices, numEdges, sources, targets, weights, bandwidths, cpu, ram);
+		}
+	}
+
+	// write a CSR snapshot as an edge list file, vertices are written in index order
+	public static void write(CSRGraph graph, String fileName) throws IOException {
+
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName), 1 << 16)) {
+			writer.write(NODES + " " + graph.vertexCount());
+			writer.newLine();
+			for (int i = 0; i < graph.vertexCount(); i++) {
+				writer.write(graph.cpu[i] + ":" + graph.ram[i]);
+				writer.newLine();
+			}
+			writer.write(EDGES + " " + graph.edgeCount());
+			writer.newLine();
+			for (int i = 0; i < graph.vertexCount(); i++) {
+				for (int e = graph.offsets[i]; e < graph.offsets[i + 1]; e++) {
+					writer.write(i + ":" + graph.targets[e] + ":" + graph.weights[e] + ":" + graph.bandwidths[e]);
+					writer.newLine();
+				}
+			}
+		}
+	}
+
+	// load a matrix substrate file in one pass without creating a dense matrix
+	public static CSRGraph readSubstrate(String fileName) throws IOException {
+		SparseVisitor visitor = new SparseVisitor();
+		new SubstrateParser().parse(fileName, visitor);
+		return visitor.toGraph();
+	}
+
+	// convert a matrix substrate file into an edge list file
+	public static void convert(String substrateFileName, String edgeListFileName) throws IOException {
+		write(readSubstrate(substrateFileName), edgeListFileName);
+	}
+
+	// check whether a file starts with the edge list header
+	public static boolean isEdgeList(String fileName) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+			String line = nextLine(reader);
+			return line != null && line.startsWith(NODES);
+		} catch (IOException ex) {
+			return false;
+		}
+	}
+
+	// get the next line that is neither blank nor a comment
+	private static String nextLine(BufferedReader reader) throws IOException {
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.length() != 0 && line.charAt(0) != '#') {
+				return line;
+			}
+		}
+		return null;
+	}
+
+	// parse the colon-separated integers of a line, returns the number of cells
+	private static int parseCells(String line, int[] cells) {
+		int count = 0;
+		int value = 0;
+		boolean negative = false;
+		boolean hasDigits = false;
+		for (int i = 0; i <= line.length(); i++) {
+			char c = i < line.length() ? line.charAt(i) : ':';
+			if (c >= '0' && c <= '9') {
+				value = value * 10 + (c - '0');
+				hasDigits = true;
+			} else if (c == ':') {
+				if (!hasDigits || count == cells.length) {
+					return -1;
+				}
+				cells[count++] = negative ? -value : value;
+				value = 0;
+				negative = false;
+				hasDigits = false;
+			} else if (c == '-' && !hasDigits && !negative) {
+				negative = true;
+			} else if (c != ' ' && c != '\t') {
+				return -1;
+			}
+		}
+		return count;
+	}
+
+	// collect the non-zero adjacency cells as edges. The bandwidth section lists the
+	// cells in the same row-major order, so every bandwidth is matched to its edge
+	// by walking the edge list once.
+	private static class SparseVisitor implements SubstrateVisitor {
+
+		private int numVertices;
+		private int[] sources = new int[16];
+		private int[] targets = new int[16];
+		private int[] weights = new int[16];
+		private int[] bandwidths = new int[16];
+		private int numEdges;
+		private int nextBandwidth; // next edge waiting for its bandwidth cell
+		private int[] cpu = new int[0];
+		private int[] ram = new int[0];
+
+		@Override
+		public void dimension(int numVertices) {
+			this.numVertices = numVertices;
+			this.cpu = new int[numVertices];
+			this.ram = new int[numVertices];
+		}
+
+		@Override
+		public void cell(int section, int row, int column, int value) {
+			switch (section) {
+				case ADJACENCY:
+					if (value != 0) {
+						addEdge(row, column, value);
+					}
+					break;
+				case BANDWIDTH:
+					if (nextBandwidth < numEdges && sources[nextBandwidth] == row && targets[nextBandwidth] == column) {
+						bandwidths[nextBandwidth++] = value;
+					}
+					break;
+				case RESOURCE:
+					if (column == 0) {
+						cpu[row] = value;
+					} else if (column == 1) {
+						ram[row] = value;
+					}
+					break;
+				default:
+					break; // ignore trailing sections
+			}
+		}
+
+		private void addEdge(int source, int target, int weight) {
+			if (numEdges == sources.length) {
+				int grown = numEdges * 2;
+				sources = Arrays.copyOf(sources, grown);
+				targets = Arrays.copyOf(targets, grown);
+				weights = Arrays.copyOf(weights, grown);
+				bandwidths = Arrays.copyOf(bandwidths, grown);
+			}
+			sources[numEdges] = source;
+			targets[numEdges] = target;
+			weights[numEdges] = weight;
+			numEdges++;
+		}
+
+		private CSRGraph toGraph() {
+			return CSRGraph.fromEdges(numVertices, numEdges, sources, targets, weights, bandwidths, cpu, ram);
+		}
+	}
+}
@@ -1,43 +1,29 @@
 package file;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 
 public class FileSystem {
 
-	private static String fileName;
-	private static ArrayList<String> fileRows;
+	private final String fileName;
+	private int[][] adjMatrix = new int[0][0];
+	private int[][] bandwidthMatrix = new int[0][0];
+	private int[][] resourceMatrix = new int[0][2];
 
 	public FileSystem(String file) {// constructor with filename
 		fileName = file;
-		fileRows = new ArrayList<String>();
-		readFile(fileName);// get all rows from the file
+		readFile(fileName);// parse all sections of the file
 	}
 
 	public void readFile(String fileName) { // read file
 
-		// This will reference one line at a time
-		String line = null;
-
 		try {
-			// FileReader reads text files in the default encoding.
-			FileReader fileReader = new FileReader(fileName);
-
-			// Always wrap FileReader in BufferedReader.
-			BufferedReader bufferedReader = new BufferedReader(fileReader);
-
-			while ((line = bufferedReader.readLine()) != null) {
-				fileRows.add(line); // add all lines into the list
-			}
-
-			// Always close files
-			bufferedReader.close();
-		} catch (FileNotFoundException ex) { // error handling
+			// fill all three matrices in a single pass over the bytes of the file
+			new SubstrateParser().parse(fileName, new MatrixVisitor());
+		} catch (NoSuchFileException ex) { // error handling
 			System.err.println("Unable to open file '" + fileName + "'");
 		} catch (IOException ex) {
 			System.err.println("Error reading file '" + fileName + "'");
@@ -66,25 +52,24 @@ public class FileSystem {
 
 	public int[][] getAdjMatrix() { // get weighted adjacency matrix
 
-		int[][] adjMatrix = findMatrix(fileRows, 0); // run matrix finder
-
 		return adjMatrix;
 	}
 
 	public int[][] getBandwidthMatrix() { // get bandwidth matrix
 
-		int[][] linkMatrix = findMatrix(fileRows, 1); // run matrix finder
-
-		return linkMatrix;
+		return bandwidthMatrix;
 	}
 
 	public int[][] getResourceMatrix() { // get resource matrix
 
-		int[][] resourceMatrix = findMatrix(fileRows, 2); // run matrix finder
-
 		return resourceMatrix;
 	}
 
+	// get the name of the parsed file
+	public String getFileName() {
+		return fileName;
+	}
+
 	// find matrices from the list
 	public int[][] findMatrix(ArrayList<String> fileRows, int type) {
 
@@ -136,4 +121,32 @@ public class FileSystem {
 		return tempMatrix; // return the matrix
 	}
 
+	// store the parsed cells into the matrices of this object
+	private class MatrixVisitor implements SubstrateVisitor {
+
+		@Override
+		public void dimension(int numVertices) {
+			adjMatrix = new int[numVertices][numVertices];
+			bandwidthMatrix = new int[numVertices][numVertices];
+			resourceMatrix = new int[numVertices][2];
+		}
+
+		@Override
+		public void cell(int section, int row, int column, int value) {
+			switch (section) {
+				case ADJACENCY:
+					adjMatrix[row][column] = value;
+					break;
+				case BANDWIDTH:
+					bandwidthMatrix[row][column] = value;
+					break;
+				case RESOURCE:
+					resourceMatrix[row][column] = value;
+					break;
+				default:
+					break; // ignore trailing sections
+			}
+		}
+	}
+
 }
\ No newline at end of file
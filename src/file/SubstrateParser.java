@@ -0,0 +1,139 @@
+package file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Single-pass parser of the colon-separated substrate format. It reads the file
+// through an NIO channel into a reusable byte buffer and decodes the numbers
+// directly from the bytes, without creating a String per line or per cell.
+// A parser keeps its own state, so separate parsers can run in parallel.
+public class SubstrateParser {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final ByteBuffer buffer;
+
+	// parser state
+	private SubstrateVisitor visitor;
+	private int numVertices; // -1 until the first row is complete
+	private int[] firstRow; // cells of the first row, replayed once its length is known
+	private int section;
+	private int row;
+	private int column;
+	private int value;
+	private boolean negative;
+	private boolean hasDigits;
+	private boolean lineHasContent;
+	private long line;
+	private String fileName;
+
+	public SubstrateParser() {
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+
+	// parse a file and report every cell to the visitor, returns the bytes read
+	public long parse(String fileName, SubstrateVisitor visitor) throws IOException {
+
+		this.fileName = fileName;
+		this.visitor = visitor;
+		this.numVertices = -1;
+		this.firstRow = new int[16];
+		this.section = 0;
+		this.row = 0;
+		this.column = 0;
+		this.value = 0;
+		this.negative = false;
+		this.hasDigits = false;
+		this.lineHasContent = false;
+		this.line = 1;
+
+		long bytesRead = 0;
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			byte[] bytes = buffer.array();
+			int count;
+			while ((count = channel.read(buffer)) != -1) {
+				if (count == 0) {
+					continue;
+				}
+				bytesRead += count;
+				consume(bytes, buffer.position());
+				buffer.clear();
+			}
+		}
+		endOfLine(); // the last line may not end with a newline
+		if (numVertices == -1) {
+			visitor.dimension(0); // empty file
+		}
+		this.visitor = null;
+		return bytesRead;
+	}
+
+	// decode the bytes of one buffer
+	private void consume(byte[] bytes, int length) {
+		for (int i = 0; i < length; i++) {
+			byte b = bytes[i];
+			if (b >= '0' && b <= '9') {
+				value = value * 10 + (b - '0');
+				hasDigits = true;
+				lineHasContent = true;
+			} else if (b == ':') {
+				endOfCell();
+				lineHasContent = true;
+			} else if (b == '\n') {
+				endOfLine();
+				line++;
+			} else if (b == '-' && !hasDigits && !negative) {
+				negative = true;
+				lineHasContent = true;
+			} else if (b != '\r' && b != ' ' && b != '\t') {
+				throw new NumberFormatException(
+						"Invalid character '" + (char) b + "' in file '" + fileName + "' line " + line);
+			}
+		}
+	}
+
+	// report the current cell
+	private void endOfCell() {
+		if (!hasDigits) {
+			throw new NumberFormatException("Empty cell in file '" + fileName + "' line " + line);
+		}
+		int cell = negative ? -value : value;
+		if (numVertices == -1) { // the row length is unknown while reading the first row
+			if (column == firstRow.length) {
+				firstRow = Arrays.copyOf(firstRow, column * 2);
+			}
+			firstRow[column] = cell;
+		} else {
+			visitor.cell(section, row, column, cell);
+		}
+		column++;
+		value = 0;
+		negative = false;
+		hasDigits = false;
+	}
+
+	// finish the current row, a blank line after a row starts the next section
+	private void endOfLine() {
+		if (lineHasContent) {
+			endOfCell();
+			if (numVertices == -1) {
+				numVertices = column;
+				visitor.dimension(numVertices);
+				for (int j = 0; j < numVertices; j++) {
+					visitor.cell(section, row, j, firstRow[j]);
+				}
+				firstRow = null;
+			}
+			row++;
+		} else if (row > 0) {
+			section++;
+			row = 0;
+		}
+		column = 0;
+		lineHasContent = false;
+	}
+}
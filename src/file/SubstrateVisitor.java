@@ -0,0 +1,16 @@
+package file;
+
+// Receives the cells of a substrate file in file order. Section 0 is the weighted
+// adjacency matrix, section 1 the bandwidth matrix and section 2 the CPU/RAM rows.
+public interface SubstrateVisitor {
+
+	int ADJACENCY = 0;
+	int BANDWIDTH = 1;
+	int RESOURCE = 2;
+
+	// called once, before the first cell, with the number of vertices of the file
+	void dimension(int numVertices);
+
+	// called for every cell of every section
+	void cell(int section, int row, int column, int value);
+}
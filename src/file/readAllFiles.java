@@ -1,6 +1,7 @@
 package file;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.io.File;
 
@@ -41,4 +42,43 @@ public class readAllFiles {
 
 		return fileNames;
 	}
+
+	// get the paths of all virtual files in a directory
+	public static List<String> virtualFileName(String target_dir) {
+		File dir = new File(target_dir);
+		File[] files = dir.listFiles();
+
+		List<String> fileNames = new ArrayList<String>();
+		if (files == null) { // not a directory
+			return fileNames;
+		}
+
+		for (File f : files) { // file checking
+
+			if (f.isFile() && f.getName().contains("virtual")) {
+				fileNames.add(f.getPath()); // add a file into the list
+			}
+		} // end-for all files
+
+		Collections.sort(fileNames); // embed the requests in a stable order
+		return fileNames;
+	}
+
+	// get all binary topology files
+	public static List<String> binaryFileName() {
+		String target_dir = "./";
+		File dir = new File(target_dir);
+		File[] files = dir.listFiles();
+
+		List<String> fileNames = new ArrayList<String>();
+
+		for (File f : files) { // file checking
+
+			if (f.isFile() && f.getName().endsWith(BinaryTopology.EXTENSION)) {
+				fileNames.add(f.getName()); // add a file into the list
+			}
+		} // end-for all files
+
+		return fileNames;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,394 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// include FileSystem class into this class
+import file.FileSystem;
+
+// Immutable compressed-sparse-row snapshot of a topology. The outgoing edges of
+// the vertex with index i are stored at positions offsets[i] .. offsets[i + 1] - 1
+// of the targets, weights and bandwidths arrays. The arrays are exposed for the
+// routing loops and must never be written after construction.
+//
+// The edges of every vertex are ordered by decreasing bandwidth, so a query with a
+// bandwidth threshold stops scanning a row at the first edge below the threshold.
+public final class CSRGraph {
+
+	public final int[] offsets; // start of the edges of every vertex, length n + 1
+	public final int[] targets; // target vertex index of every edge
+	public final int[] weights; // weight of every edge
+	public final int[] bandwidths; // bandwidth capacity/demand of every edge
+	public final int[] cpu; // CPU capacity/demand of every vertex
+	public final int[] ram; // RAM capacity/demand of every vertex
+
+	private final int[] names; // vertex name of every index
+	private final Map<Integer, Integer> indexByName; // null when names equal indices
+	private volatile CSRGraph reverse; // same vertices with every edge turned around, built on demand
+
+	// create the snapshot from already compressed arrays. The arrays are kept by
+	// reference when every row is sorted by bandwidth; otherwise the edge arrays are
+	// copied before sorting, so the caller's arrays are never reordered
+	public CSRGraph(int[] offsets, int[] targets, int[] weights, int[] bandwidths, int[] cpu, int[] ram,
+			int[] names) {
+		this(offsets, targets, weights, bandwidths, cpu, ram, names, false);
+	}
+
+	// create the snapshot, owned edge arrays were created for it and may be sorted in place
+	private CSRGraph(int[] offsets, int[] targets, int[] weights, int[] bandwidths, int[] cpu, int[] ram,
+			int[] names, boolean owned) {
+		boolean copy = !owned && !isSortedByBandwidth(offsets, bandwidths);
+		this.offsets = offsets;
+		this.targets = copy ? targets.clone() : targets;
+		this.weights = copy ? weights.clone() : weights;
+		this.bandwidths = copy ? bandwidths.clone() : bandwidths;
+		this.cpu = cpu;
+		this.ram = ram;
+		this.names = names;
+		this.indexByName = buildIndex(names);
+		sortByBandwidth();
+	}
+
+	// build the snapshot from weighted adjacency, bandwidth and resource matrices
+	public static CSRGraph fromMatrices(int[][] adjMatrix, int[][] adjBWMatrix, int[][] resourceMatrix) {
+
+		int numVertices = adjMatrix.length;
+		int[] offsets = new int[numVertices + 1];
+
+		for (int i = 0; i < numVertices; i++) { // count the edges of every row
+			int degree = 0;
+			for (int j = 0; j < adjMatrix[i].length; j++) {
+				if (adjMatrix[i][j] != 0) {
+					degree++;
+				}
+			}
+			offsets[i + 1] = offsets[i] + degree;
+		} // end-for edge counting
+
+		int[] targets = new int[offsets[numVertices]];
+		int[] weights = new int[targets.length];
+		int[] bandwidths = new int[targets.length];
+		int[] cpu = new int[numVertices];
+		int[] ram = new int[numVertices];
+		int[] names = new int[numVertices];
+
+		for (int i = 0; i < numVertices; i++) { // fill the edges of every row
+			int edge = offsets[i];
+			for (int j = 0; j < adjMatrix[i].length; j++) {
+				if (adjMatrix[i][j] != 0) {
+					targets[edge] = j;
+					weights[edge] = adjMatrix[i][j];
+					bandwidths[edge] = adjBWMatrix[i][j];
+					edge++;
+				}
+			}
+			cpu[i] = resourceMatrix[i][0];
+			ram[i] = resourceMatrix[i][1];
+			names[i] = i;
+		} // end-for edge generation
+
+		return new CSRGraph(offsets, targets, weights, bandwidths, cpu, ram, names, true);
+	}
+
+	// build the snapshot from the first numEdges entries of an edge list
+	public static CSRGraph fromEdges(int numVertices, int numEdges, int[] sources, int[] edgeTargets,
+			int[] edgeWeights, int[] edgeBandwidths, int[] cpu, int[] ram) {
+
+		int[] offsets = new int[numVertices + 1];
+		for (int e = 0; e < numEdges; e++) { // count the edges of every vertex
+			offsets[sources[e] + 1]++;
+		}
+		for (int i = 0; i < numVertices; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		int[] next = Arrays.copyOf(offsets, numVertices);
+		int[] targets = new int[numEdges];
+		int[] weights = new int[numEdges];
+		int[] bandwidths = new int[numEdges];
+		for (int e = 0; e < numEdges; e++) { // place every edge in its row, keeping the input order
+			int slot = next[sources[e]]++;
+			targets[slot] = edgeTargets[e];
+			weights[slot] = edgeWeights[e];
+			bandwidths[slot] = edgeBandwidths[e];
+		}
+
+		int[] names = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			names[i] = i;
+		}
+
+		return new CSRGraph(offsets, targets, weights, bandwidths, cpu, ram, names, true);
+	}
+
+	// build the snapshot from a loaded topology file
+	public static CSRGraph fromFileSystem(FileSystem file) {
+		return fromMatrices(file.getAdjMatrix(), file.getBandwidthMatrix(), file.getResourceMatrix());
+	}
+
+	// build the snapshot from an existing Vertex/Edge object graph
+	public static CSRGraph fromVertices(List<Vertex> vertices) {
+
+		int numVertices = vertices.size();
+		int[] names = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			names[i] = vertices.get(i).name;
+		}
+		Map<Integer, Integer> indexByName = buildIndex(names);
+
+		int[] offsets = new int[numVertices + 1];
+		for (int i = 0; i < numVertices; i++) {
+			List<Edge> adjacencies = vertices.get(i).adjacencies;
+			offsets[i + 1] = offsets[i] + (adjacencies == null ? 0 : adjacencies.size());
+		}
+
+		int[] targets = new int[offsets[numVertices]];
+		int[] weights = new int[targets.length];
+		int[] bandwidths = new int[targets.length];
+		int[] cpu = new int[numVertices];
+		int[] ram = new int[numVertices];
+
+		for (int i = 0; i < numVertices; i++) {
+			Vertex vertex = vertices.get(i);
+			cpu[i] = vertex.getCPU();
+			ram[i] = vertex.getRAM();
+			if (vertex.adjacencies == null) {
+				continue;
+			}
+			int edge = offsets[i];
+			for (Edge connectedEdge : vertex.adjacencies) {
+				int targetName = connectedEdge.getTargetVertex().name;
+				targets[edge] = indexByName == null ? targetName : indexByName.get(targetName);
+				weights[edge] = connectedEdge.getEdgeWeight();
+				bandwidths[edge] = connectedEdge.getBandwidth();
+				edge++;
+			}
+		} // end-for vertices
+
+		return new CSRGraph(offsets, targets, weights, bandwidths, cpu, ram, names, true);
+	}
+
+	// create a Vertex/Edge object graph with the same vertices and edges
+	public List<Vertex> toVertices() {
+
+		List<Vertex> vertices = new ArrayList<Vertex>(vertexCount());
+		for (int i = 0; i < vertexCount(); i++) {
+			Vertex currentVertex = new Vertex(names[i]);
+			currentVertex.setCPU(cpu[i]);
+			currentVertex.setRAM(ram[i]);
+			vertices.add(currentVertex);
+		}
+
+		for (int i = 0; i < vertexCount(); i++) {
+			ArrayList<Edge> connectedEdgeList = new ArrayList<Edge>(offsets[i + 1] - offsets[i]);
+			for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+				Edge tempEdge = new Edge(vertices.get(i), vertices.get(targets[e]), weights[e]);
+				tempEdge.setBandwidth(bandwidths[e]);
+				connectedEdgeList.add(tempEdge);
+			}
+			vertices.get(i).adjacencies = connectedEdgeList;
+		}
+
+		return vertices;
+	}
+
+	// copy the snapshot with the first edge between two indices set to a new weight and
+	// bandwidth, the edge is added when the vertices are not connected yet
+	public CSRGraph withEdge(int sourceIndex, int targetIndex, int weight, int bandwidth) {
+
+		int edge = findEdge(sourceIndex, targetIndex);
+		int added = edge == -1 ? 1 : 0;
+		int n = vertexCount();
+
+		int[] newOffsets = offsets.clone();
+		for (int i = sourceIndex + 1; i <= n; i++) {
+			newOffsets[i] += added;
+		}
+		int[] newTargets = new int[targets.length + added];
+		int[] newWeights = new int[targets.length + added];
+		int[] newBandwidths = new int[targets.length + added];
+
+		int split = offsets[sourceIndex + 1]; // a new edge goes to the end of its row
+		System.arraycopy(targets, 0, newTargets, 0, split);
+		System.arraycopy(weights, 0, newWeights, 0, split);
+		System.arraycopy(bandwidths, 0, newBandwidths, 0, split);
+		System.arraycopy(targets, split, newTargets, split + added, targets.length - split);
+		System.arraycopy(weights, split, newWeights, split + added, targets.length - split);
+		System.arraycopy(bandwidths, split, newBandwidths, split + added, targets.length - split);
+
+		int slot = edge == -1 ? split : edge;
+		newTargets[slot] = targetIndex;
+		newWeights[slot] = weight;
+		newBandwidths[slot] = bandwidth; // the constructor restores the bandwidth order of the row
+
+		return new CSRGraph(newOffsets, newTargets, newWeights, newBandwidths, cpu.clone(), ram.clone(),
+				names.clone(), true);
+	}
+
+	// get the position of the first edge between two indices, -1 if there is none
+	public int findEdge(int sourceIndex, int targetIndex) {
+		for (int e = offsets[sourceIndex]; e < offsets[sourceIndex + 1]; e++) {
+			if (targets[e] == targetIndex) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	// get the snapshot with every edge reversed, the incoming edges of a vertex become its row
+	public CSRGraph reverse() {
+		CSRGraph reversed = reverse;
+		if (reversed != null) {
+			return reversed;
+		}
+
+		int n = vertexCount();
+		int[] reverseOffsets = new int[n + 1];
+		for (int e = 0; e < targets.length; e++) { // count the incoming edges of every vertex
+			reverseOffsets[targets[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			reverseOffsets[i + 1] += reverseOffsets[i];
+		}
+
+		int[] next = Arrays.copyOf(reverseOffsets, n);
+		int[] reverseTargets = new int[targets.length];
+		int[] reverseWeights = new int[targets.length];
+		int[] reverseBandwidths = new int[targets.length];
+		for (int i = 0; i < n; i++) {
+			for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+				int slot = next[targets[e]]++;
+				reverseTargets[slot] = i;
+				reverseWeights[slot] = weights[e];
+				reverseBandwidths[slot] = bandwidths[e];
+			}
+		}
+
+		reversed = new CSRGraph(reverseOffsets, reverseTargets, reverseWeights, reverseBandwidths, cpu, ram, names,
+				true);
+		reversed.reverse = this;
+		reverse = reversed;
+		return reversed;
+	}
+
+	// get the number of vertices
+	public int vertexCount() {
+		return offsets.length - 1;
+	}
+
+	// get the number of directed edges
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	// get the number of outgoing edges of a vertex index
+	public int degree(int index) {
+		return offsets[index + 1] - offsets[index];
+	}
+
+	// get the vertex name of an index
+	public int getName(int index) {
+		return names[index];
+	}
+
+	// get the index of a vertex name, -1 if the vertex does not exist
+	public int indexOf(int vertexName) {
+		if (indexByName == null) {
+			return vertexName >= 0 && vertexName < names.length ? vertexName : -1;
+		}
+		Integer index = indexByName.get(vertexName);
+		return index == null ? -1 : index;
+	}
+
+	// get the end of the edges of a vertex that have at least the given bandwidth
+	public int eligibleEnd(int index, int bandwidth) {
+		int low = offsets[index];
+		int high = offsets[index + 1];
+		while (low < high) { // binary search in the decreasing bandwidths
+			int middle = (low + high) >>> 1;
+			if (bandwidths[middle] >= bandwidth) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	// check whether the edges of every row are ordered by decreasing bandwidth
+	private static boolean isSortedByBandwidth(int[] offsets, int[] bandwidths) {
+		for (int i = 0; i + 1 < offsets.length; i++) {
+			for (int e = offsets[i] + 1; e < offsets[i + 1]; e++) {
+				if (bandwidths[e - 1] < bandwidths[e]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	// order the edges of every row by decreasing bandwidth, keeping the order of ties
+	private void sortByBandwidth() {
+		long[] keys = null;
+		int[] rowTargets = null;
+		int[] rowWeights = null;
+		int[] rowBandwidths = null;
+
+		for (int i = 0; i < vertexCount(); i++) {
+			int start = offsets[i];
+			int end = offsets[i + 1];
+
+			boolean sorted = true;
+			for (int e = start + 1; e < end && sorted; e++) {
+				sorted = bandwidths[e - 1] >= bandwidths[e];
+			}
+			if (sorted) {
+				continue; // rows of loaded snapshots are usually sorted already
+			}
+
+			int degree = end - start;
+			if (keys == null || keys.length < degree) {
+				keys = new long[degree];
+				rowTargets = new int[degree];
+				rowWeights = new int[degree];
+				rowBandwidths = new int[degree];
+			}
+
+			// the key sorts by decreasing bandwidth, then by position in the row
+			for (int k = 0; k < degree; k++) {
+				keys[k] = (-(long) bandwidths[start + k] << 31) | k;
+			}
+			Arrays.sort(keys, 0, degree);
+
+			System.arraycopy(targets, start, rowTargets, 0, degree);
+			System.arraycopy(weights, start, rowWeights, 0, degree);
+			System.arraycopy(bandwidths, start, rowBandwidths, 0, degree);
+			for (int k = 0; k < degree; k++) {
+				int from = (int) (keys[k] & Integer.MAX_VALUE);
+				targets[start + k] = rowTargets[from];
+				weights[start + k] = rowWeights[from];
+				bandwidths[start + k] = rowBandwidths[from];
+			}
+		}
+	}
+
+	// map vertex names to indices unless every vertex is named after its index
+	private static Map<Integer, Integer> buildIndex(int[] names) {
+		boolean identity = true;
+		for (int i = 0; i < names.length && identity; i++) {
+			identity = names[i] == i;
+		}
+		if (identity) {
+			return null;
+		}
+
+		Map<Integer, Integer> indexByName = new HashMap<Integer, Integer>(names.length * 2);
+		for (int i = 0; i < names.length; i++) {
+			indexByName.put(names[i], i);
+		}
+		return indexByName;
+	}
+}
@@ -0,0 +1,192 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Topology whose link weights and bandwidths change in place, for example while
+// reservations come and go. The edges keep the positions of the CSR snapshot they
+// were copied from, so an edge index stays valid across updates; the rows are not
+// ordered by bandwidth, every scan checks the threshold itself. A reverse index
+// lists the incoming edges of every vertex. Registered listeners are told about
+// every change while the graph is still locked, so they can repair derived state
+// before the next update or query.
+public class DynamicGraph {
+
+	private final CSRGraph base; // names and vertex resources
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] sources; // source vertex of every edge
+	private final int[] weights;
+	private final int[] bandwidths;
+	private final int[] reverseOffsets; // start of the incoming edges of every vertex
+	private final int[] reverseEdges; // edge index of every incoming edge
+	private final List<EdgeListener> listeners;
+	private long version; // number of applied changes
+
+	// copy the edges of a snapshot
+	public DynamicGraph(CSRGraph graph) {
+		int n = graph.vertexCount();
+		this.base = graph;
+		this.offsets = graph.offsets.clone();
+		this.targets = graph.targets.clone();
+		this.weights = graph.weights.clone();
+		this.bandwidths = graph.bandwidths.clone();
+		this.sources = new int[targets.length];
+		this.listeners = new CopyOnWriteArrayList<EdgeListener>();
+
+		this.reverseOffsets = new int[n + 1];
+		for (int e = 0; e < targets.length; e++) {
+			reverseOffsets[targets[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			reverseOffsets[i + 1] += reverseOffsets[i];
+		}
+		int[] next = Arrays.copyOf(reverseOffsets, n);
+		this.reverseEdges = new int[targets.length];
+		for (int i = 0; i < n; i++) {
+			for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+				sources[e] = i;
+				reverseEdges[next[targets[e]]++] = e;
+			}
+		}
+	}
+
+	// register a listener for edge changes
+	public void addListener(EdgeListener listener) {
+		listeners.add(listener);
+	}
+
+	// remove a registered listener
+	public void removeListener(EdgeListener listener) {
+		listeners.remove(listener);
+	}
+
+	// set the weight of the first edge between two vertex names
+	public synchronized void setWeight(int sourceID, int targetID, int weight) {
+		int edge = requireEdge(sourceID, targetID);
+		updateEdge(edge, weight, bandwidths[edge]);
+	}
+
+	// set the bandwidth of the first edge between two vertex names
+	public synchronized void setBandwidth(int sourceID, int targetID, int bandwidth) {
+		int edge = requireEdge(sourceID, targetID);
+		updateEdge(edge, weights[edge], bandwidth);
+	}
+
+	// set the weight and bandwidth of an edge index and notify the listeners
+	public synchronized void updateEdge(int edge, int weight, int bandwidth) {
+		int oldWeight = weights[edge];
+		int oldBandwidth = bandwidths[edge];
+		if (oldWeight == weight && oldBandwidth == bandwidth) {
+			return;
+		}
+		weights[edge] = weight;
+		bandwidths[edge] = bandwidth;
+		version++;
+		for (EdgeListener listener : listeners) {
+			listener.edgeChanged(this, edge, oldWeight, oldBandwidth);
+		}
+	}
+
+	// copy the current state into an immutable snapshot for the static engines
+	public synchronized CSRGraph snapshot() {
+		int n = vertexCount();
+		int[] names = new int[n];
+		for (int i = 0; i < n; i++) {
+			names[i] = base.getName(i);
+		}
+		return new CSRGraph(offsets.clone(), targets.clone(), weights.clone(), bandwidths.clone(), base.cpu.clone(),
+				base.ram.clone(), names);
+	}
+
+	// get the index of the first edge between two vertex indices, -1 if there is none
+	public int findEdge(int sourceIndex, int targetIndex) {
+		for (int e = offsets[sourceIndex]; e < offsets[sourceIndex + 1]; e++) {
+			if (targets[e] == targetIndex) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	private int requireEdge(int sourceID, int targetID) {
+		int source = indexOf(sourceID);
+		int target = indexOf(targetID);
+		int edge = source == -1 || target == -1 ? -1 : findEdge(source, target);
+		if (edge == -1) {
+			throw new IllegalArgumentException("No edge from " + sourceID + " to " + targetID);
+		}
+		return edge;
+	}
+
+	// get the number of changes applied so far
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	// get the number of vertices
+	public int vertexCount() {
+		return offsets.length - 1;
+	}
+
+	// get the number of directed edges
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	// get the vertex name of an index
+	public int getName(int index) {
+		return base.getName(index);
+	}
+
+	// get the index of a vertex name, -1 if the vertex does not exist
+	public int indexOf(int vertexName) {
+		return base.indexOf(vertexName);
+	}
+
+	// get the first outgoing edge of a vertex index
+	public int firstEdge(int index) {
+		return offsets[index];
+	}
+
+	// get the end of the outgoing edges of a vertex index
+	public int endEdge(int index) {
+		return offsets[index + 1];
+	}
+
+	// get the start of the incoming edges of a vertex index in the reverse index
+	public int firstIncoming(int index) {
+		return reverseOffsets[index];
+	}
+
+	// get the end of the incoming edges of a vertex index in the reverse index
+	public int endIncoming(int index) {
+		return reverseOffsets[index + 1];
+	}
+
+	// get the edge index at a position of the reverse index
+	public int incomingEdge(int position) {
+		return reverseEdges[position];
+	}
+
+	// get the source vertex index of an edge
+	public int getSource(int edge) {
+		return sources[edge];
+	}
+
+	// get the target vertex index of an edge
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+
+	// get the current weight of an edge
+	public int getWeight(int edge) {
+		return weights[edge];
+	}
+
+	// get the current bandwidth of an edge
+	public int getBandwidth(int edge) {
+		return bandwidths[edge];
+	}
+}
@@ -1,10 +1,16 @@
 package graph;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 public class Edge {
+	private static final AtomicIntegerFieldUpdater<Edge> BANDWIDTH =
+			AtomicIntegerFieldUpdater.newUpdater(Edge.class, "bandWidth");
+
 	private final Vertex start;
 	private final Vertex target;
 	private final int weight;
-	private int bandWidth;
+	private volatile int bandWidth;
 
 	// Generate the edge with start and end points
 	public Edge(Vertex startVertex, Vertex endVertex, int edgeWeight) {
@@ -28,6 +34,49 @@ public class Edge {
 	public int getBandwidth(){
 		return this.bandWidth;
 	}
+
+	// atomically take a positive demand from the bandwidth capacity, false if not enough is left
+	public boolean reserve(int demand) {
+		LinkCapacity.requirePositive(demand);
+		while (true) {
+			int capacity = bandWidth;
+			if (capacity < demand) {
+				return false;
+			}
+			if (BANDWIDTH.compareAndSet(this, capacity, capacity - demand)) {
+				return true;
+			}
+		}
+	}
+
+	// atomically give a reserved demand back to the bandwidth capacity
+	public void release(int demand) {
+		LinkCapacity.requirePositive(demand);
+		BANDWIDTH.addAndGet(this, demand);
+	}
+
+	// atomically take a positive demand from every edge of a path or from none of them,
+	// as LinkCapacity.tryReserve(int[], int) does for CSR edges
+	public static boolean reserve(List<Edge> path, int demand) {
+		LinkCapacity.requirePositive(demand);
+		for (int i = 0; i < path.size(); i++) {
+			if (!path.get(i).reserve(demand)) {
+				for (int j = 0; j < i; j++) { // roll back the edges already taken
+					path.get(j).release(demand);
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// give a demand reserved on every edge of a path back
+	public static void release(List<Edge> path, int demand) {
+		LinkCapacity.requirePositive(demand);
+		for (Edge edge : path) {
+			edge.release(demand);
+		}
+	}
 	
 	// get start vertex of the edge
 	public Vertex getStartVertex(){
@@ -0,0 +1,9 @@
+package graph;
+
+// Receives the changes applied to a DynamicGraph. The graph already holds the new
+// weight and bandwidth when the listener runs.
+public interface EdgeListener {
+
+	// an edge changed its weight and/or bandwidth
+	void edgeChanged(DynamicGraph graph, int edge, int oldWeight, int oldBandwidth);
+}
@@ -1,9 +1,13 @@
 package graph;
 
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.List;
 
 // include FileSystem class into this class
+import file.BinaryTopology;
+import file.EdgeListFile;
 import file.FileSystem;
 
 public class GenerateVertex {
@@ -18,6 +22,11 @@ public class GenerateVertex {
 
 	// create all vertices in a topology
 	public List<Vertex> getVertices() {
+
+		// binary and edge list files are never expanded into matrices
+		if (BinaryTopology.isBinary(fileName) || EdgeListFile.isEdgeList(fileName)) {
+			return getGraph().toVertices();
+		}
 		
 		// Define the topology file
 		FileSystem file = new FileSystem(fileName);
@@ -61,4 +70,24 @@ public class GenerateVertex {
 		return vertices; // return the list
 	}
 
+	// create the compressed-sparse-row snapshot of the topology
+	public CSRGraph getGraph() {
+
+		try {
+			if (BinaryTopology.isBinary(fileName)) { // bulk copy the mapped binary topology file
+				return BinaryTopology.open(fileName).toGraph();
+			}
+			if (EdgeListFile.isEdgeList(fileName)) { // stream the sparse edge list
+				return EdgeListFile.read(fileName);
+			}
+			// stream the matrix file without creating the dense matrices
+			return EdgeListFile.readSubstrate(fileName);
+		} catch (NoSuchFileException ex) { // error handling
+			System.err.println("Unable to open file '" + fileName + "'");
+		} catch (IOException ex) {
+			System.err.println("Error reading file '" + fileName + "'");
+		}
+		return new CSRGraph(new int[1], new int[0], new int[0], new int[0], new int[0], new int[0], new int[0]);
+	}
+
 }
\ No newline at end of file
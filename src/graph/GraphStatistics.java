@@ -0,0 +1,103 @@
+package graph;
+
+// Shape of a CSR snapshot, collected in one pass over its edges: size, density,
+// weight and bandwidth ranges and whether any weight is negative.
+public final class GraphStatistics {
+
+	private final int vertexCount;
+	private final int edgeCount;
+	private final int minWeight;
+	private final int maxWeight;
+	private final int minBandwidth;
+	private final int maxBandwidth;
+	private final int maxDegree;
+
+	private GraphStatistics(int vertexCount, int edgeCount, int minWeight, int maxWeight, int minBandwidth,
+			int maxBandwidth, int maxDegree) {
+		this.vertexCount = vertexCount;
+		this.edgeCount = edgeCount;
+		this.minWeight = minWeight;
+		this.maxWeight = maxWeight;
+		this.minBandwidth = minBandwidth;
+		this.maxBandwidth = maxBandwidth;
+		this.maxDegree = maxDegree;
+	}
+
+	// collect the statistics of a snapshot
+	public static GraphStatistics of(CSRGraph graph) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		int minWeight = m == 0 ? 0 : Integer.MAX_VALUE;
+		int maxWeight = m == 0 ? 0 : Integer.MIN_VALUE;
+		int minBandwidth = m == 0 ? 0 : Integer.MAX_VALUE;
+		int maxBandwidth = m == 0 ? 0 : Integer.MIN_VALUE;
+		for (int e = 0; e < m; e++) {
+			minWeight = Math.min(minWeight, graph.weights[e]);
+			maxWeight = Math.max(maxWeight, graph.weights[e]);
+			minBandwidth = Math.min(minBandwidth, graph.bandwidths[e]);
+			maxBandwidth = Math.max(maxBandwidth, graph.bandwidths[e]);
+		}
+		int maxDegree = 0;
+		for (int i = 0; i < n; i++) {
+			maxDegree = Math.max(maxDegree, graph.degree(i));
+		}
+		return new GraphStatistics(n, m, minWeight, maxWeight, minBandwidth, maxBandwidth, maxDegree);
+	}
+
+	// get the number of vertices
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	// get the number of edges
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	// get the fraction of all ordered vertex pairs that are linked
+	public double getDensity() {
+		return vertexCount < 2 ? 0 : (double) edgeCount / ((double) vertexCount * (vertexCount - 1));
+	}
+
+	// get the average number of edges leaving a vertex
+	public double getAverageDegree() {
+		return vertexCount == 0 ? 0 : (double) edgeCount / vertexCount;
+	}
+
+	// get the largest number of edges leaving a vertex
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	// check whether any edge has a negative weight
+	public boolean hasNegativeWeights() {
+		return minWeight < 0;
+	}
+
+	// get the smallest edge weight, 0 without edges
+	public int getMinWeight() {
+		return minWeight;
+	}
+
+	// get the largest edge weight, 0 without edges
+	public int getMaxWeight() {
+		return maxWeight;
+	}
+
+	// get the smallest edge bandwidth, 0 without edges
+	public int getMinBandwidth() {
+		return minBandwidth;
+	}
+
+	// get the largest edge bandwidth, 0 without edges
+	public int getMaxBandwidth() {
+		return maxBandwidth;
+	}
+
+	// get the statistics in one line
+	public String toString() {
+		return String.format("V=%d E=%d density=%.4f degree=%.1f (max %d) weights=[%d, %d] bandwidths=[%d, %d]",
+				vertexCount, edgeCount, getDensity(), getAverageDegree(), maxDegree, minWeight, maxWeight,
+				minBandwidth, maxBandwidth);
+	}
+}
@@ -0,0 +1,73 @@
+package graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Residual bandwidth of every edge of a CSR snapshot, shared by concurrent
+// admissions. Each counter is changed with compare-and-set only, so no lock is
+// held while reserving. A multi-edge reservation takes the edges one by one and
+// gives back the ones already taken when an edge has too little left, so it is
+// all-or-nothing.
+public class LinkCapacity {
+
+	private final CSRGraph graph;
+	private final AtomicIntegerArray residual;
+
+	// start with the full bandwidth of every edge
+	public LinkCapacity(CSRGraph graph) {
+		this.graph = graph;
+		this.residual = new AtomicIntegerArray(graph.bandwidths);
+	}
+
+	// get the graph of the counters
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// get the bandwidth left on an edge
+	public int getResidual(int edge) {
+		return residual.get(edge);
+	}
+
+	// take a positive demand from one edge, false if not enough is left
+	public boolean tryReserve(int edge, int demand) {
+		requirePositive(demand);
+		while (true) {
+			int left = residual.get(edge);
+			if (left < demand) {
+				return false;
+			}
+			if (residual.compareAndSet(edge, left, left - demand)) {
+				return true;
+			}
+		}
+	}
+
+	// take a positive demand from all edges or from none of them
+	public boolean tryReserve(int[] edges, int demand) {
+		requirePositive(demand);
+		for (int i = 0; i < edges.length; i++) {
+			if (!tryReserve(edges[i], demand)) {
+				for (int j = 0; j < i; j++) { // roll back the edges already taken
+					residual.addAndGet(edges[j], demand);
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// give a reserved demand back to all edges
+	public void release(int[] edges, int demand) {
+		requirePositive(demand);
+		for (int edge : edges) {
+			residual.addAndGet(edge, demand);
+		}
+	}
+
+	// a demand of zero or less would pass every capacity check and add capacity
+	static void requirePositive(int demand) {
+		if (demand <= 0) {
+			throw new IllegalArgumentException("Demand must be positive: " + demand);
+		}
+	}
+}
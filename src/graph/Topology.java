@@ -0,0 +1,54 @@
+package graph;
+
+import java.util.List;
+
+// Loaded topology file: the immutable CSR snapshot and the modification time of the
+// file it was loaded from. Only the snapshot is cached; the Vertex/Edge objects are
+// mutable, so every caller that asks for them gets its own copy.
+public final class Topology {
+
+	private final String fileName;
+	private final long lastModified;
+	private final CSRGraph graph;
+	private final long loadNanos;
+
+	public Topology(String fileName, long lastModified, CSRGraph graph, long loadNanos) {
+		this.fileName = fileName;
+		this.lastModified = lastModified;
+		this.graph = graph;
+		this.loadNanos = loadNanos;
+	}
+
+	// load a topology file
+	public static Topology load(String fileName, long lastModified) {
+		long start = System.nanoTime();
+		CSRGraph graph = new GenerateVertex(fileName).getGraph();
+		return new Topology(fileName, lastModified, graph, System.nanoTime() - start);
+	}
+
+	// get the file the topology was loaded from
+	public String getFileName() {
+		return fileName;
+	}
+
+	// get the modification time of the file when it was loaded
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	// get the CSR snapshot
+	public CSRGraph getGraph() {
+		return graph;
+	}
+
+	// create a new copy of the vertices, vertex i has index i in the snapshot; writes
+	// into the copy (bandwidth, reservations, search fields) stay with the caller
+	public List<Vertex> getVertices() {
+		return graph.toVertices();
+	}
+
+	// get the time spent loading the file
+	public long getLoadNanos() {
+		return loadNanos;
+	}
+}
@@ -0,0 +1,218 @@
+package graph;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache of loaded topologies keyed by file path. Every entry remembers
+// the modification time of its file; when the file changes, the stale entry keeps
+// being served while a background thread reloads it.
+public class TopologyCache {
+
+	private static final TopologyCache shared = new TopologyCache(16);
+
+	private final int maxEntries;
+	private final Map<String, Topology> entries;
+	private final ConcurrentHashMap<String, CompletableFuture<Topology>> pendingLoads;
+	private final Set<String> reloading;
+	private final ConcurrentHashMap<String, RuntimeException> reloadFailures; // last failed reload of a file
+	private final ExecutorService reloader;
+
+	// cache counters
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong reloads = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong loadNanos = new AtomicLong();
+
+	// create a cache holding at most maxEntries topologies
+	public TopologyCache(int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+		}
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, Topology>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Topology> eldest) {
+				if (size() > TopologyCache.this.maxEntries) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+		this.pendingLoads = new ConcurrentHashMap<String, CompletableFuture<Topology>>();
+		this.reloading = ConcurrentHashMap.newKeySet();
+		this.reloadFailures = new ConcurrentHashMap<String, RuntimeException>();
+		this.reloader = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "topology-reloader");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// get the cache shared by all ShortestPath objects
+	public static TopologyCache getShared() {
+		return shared;
+	}
+
+	// get the topology of a file, loading it on a miss
+	public Topology get(String fileName) {
+
+		String key = new File(fileName).getAbsolutePath();
+		long lastModified = new File(key).lastModified();
+
+		Topology topology;
+		synchronized (entries) {
+			topology = entries.get(key);
+		}
+
+		if (topology != null) {
+			hits.incrementAndGet();
+			if (topology.getLastModified() != lastModified) {
+				scheduleReload(key); // serve the stale entry until the reload is done
+			}
+			return topology;
+		}
+
+		misses.incrementAndGet();
+
+		// concurrent misses on the same file wait for a single load
+		CompletableFuture<Topology> load = new CompletableFuture<Topology>();
+		CompletableFuture<Topology> pending = pendingLoads.putIfAbsent(key, load);
+		if (pending != null) {
+			return await(pending);
+		}
+		try {
+			topology = loadEntry(key, lastModified);
+			load.complete(topology);
+			return topology;
+		} catch (RuntimeException ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			pendingLoads.remove(key);
+		}
+	}
+
+	// get the error of the last background reload of a file, null if it succeeded; while
+	// a reload fails the entry keeps serving the snapshot loaded before the change
+	public RuntimeException getReloadFailure(String fileName) {
+		return reloadFailures.get(new File(fileName).getAbsolutePath());
+	}
+
+	// drop the entry of a file
+	public void invalidate(String fileName) {
+		synchronized (entries) {
+			entries.remove(new File(fileName).getAbsolutePath());
+		}
+	}
+
+	// drop all entries
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	// get the number of cached topologies
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	// get the number of requests answered from the cache
+	public long getHits() {
+		return hits.get();
+	}
+
+	// get the number of requests that had to load the file
+	public long getMisses() {
+		return misses.get();
+	}
+
+	// get the number of files loaded, including background reloads
+	public long getLoads() {
+		return loads.get();
+	}
+
+	// get the number of background reloads of changed files
+	public long getReloads() {
+		return reloads.get();
+	}
+
+	// get the number of entries dropped by the LRU policy
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	// get the total time spent loading files
+	public long getTotalLoadNanos() {
+		return loadNanos.get();
+	}
+
+	// get the average time of a load in milliseconds
+	public double getAverageLoadMillis() {
+		long count = loads.get();
+		return count == 0 ? 0 : loadNanos.get() / 1e6 / count;
+	}
+
+	// get the counters of the cache
+	public String toString() {
+		return "TopologyCache[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", loads="
+				+ getLoads() + ", reloads=" + getReloads() + ", evictions=" + getEvictions()
+				+ String.format(", avgLoad=%.2fms]", getAverageLoadMillis());
+	}
+
+	// load a file and store it in the cache
+	private Topology loadEntry(String key, long lastModified) {
+		Topology topology = Topology.load(key, lastModified);
+		loads.incrementAndGet();
+		loadNanos.addAndGet(topology.getLoadNanos());
+		synchronized (entries) {
+			entries.put(key, topology);
+		}
+		reloadFailures.remove(key);
+		return topology;
+	}
+
+	// reload a changed file on the background thread, once per change
+	private void scheduleReload(String key) {
+		if (!reloading.add(key)) {
+			return; // a reload is already queued
+		}
+		reloader.execute(() -> {
+			try {
+				loadEntry(key, new File(key).lastModified());
+				reloads.incrementAndGet();
+			} catch (RuntimeException ex) {
+				reloadFailures.put(key, ex);
+				System.err.println("Error reloading file '" + key + "': " + ex);
+			} finally {
+				reloading.remove(key);
+			}
+		});
+	}
+
+	private static Topology await(CompletableFuture<Topology> load) {
+		try {
+			return load.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading topology", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("Error loading topology", ex.getCause());
+		}
+	}
+}